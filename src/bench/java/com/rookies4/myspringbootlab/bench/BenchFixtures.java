@@ -0,0 +1,63 @@
+package com.rookies4.myspringbootlab.bench;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.entity.BookDetail;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    벤치마크 공통 데이터/스텁
+ */
+final class BenchFixtures {
+
+    private BenchFixtures() {
+    }
+
+    static Book book(long id) {
+        Book book = Book.builder()
+                .id(id)
+                .title("Clean Code " + id)
+                .author("Robert C. Martin")
+                .isbn(String.format("978%010d", id))
+                .price(45000)
+                .publishDate(LocalDate.of(2008, 8, 1))
+                .build();
+        book.setBookDetail(BookDetail.builder()
+                .id(id)
+                .description("A handbook of agile software craftsmanship")
+                .language("English")
+                .pageCount(464)
+                .publisher("Prentice Hall")
+                .coverImageUrl("https://example.com/cleancode.jpg")
+                .edition("1st")
+                .build());
+        return book;
+    }
+
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) books.add(book(i));
+        return books;
+    }
+
+    /**
+     * 인터페이스 스텁: 메서드 이름으로 고정 응답을 돌려주고, 나머지는 기본값(null/false/0)
+     * (Spring/DB 없이 서비스 로직만 재기 위함)
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Object... nameAndResult) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            for (int i = 0; i < nameAndResult.length; i += 2) {
+                if (method.getName().equals(nameAndResult[i])) return nameAndResult[i + 1];
+            }
+            if (method.getReturnType() == boolean.class) return false;
+            if (method.getReturnType() == Optional.class) return Optional.empty();
+            if (method.getReturnType().isPrimitive() && method.getReturnType() != void.class) return 0;
+            return null;
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.rookies4.myspringbootlab.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    떠 있는 서버에 동시 요청을 걸어 처리량과 지연(p50/p99)을 재는 간단한 부하 도구
+    (같은 데이터로 기본 모드 / vthreads 프로필을 번갈아 띄워 비교)
+
+    인자: baseUrl[,baseUrl...] concurrency seconds [mix|isbn|search|page|miss|cart]
+      mix    : ISBN 조회 70% + 제목 검색 30%
+      isbn   : ISBN 조회만
+      search : 제목 검색만
+      page   : 목록 커서 페이지(size=20, 임의 위치)만
+      miss   : 없는 ISBN 조회만 (404 가 정상이라 오류로 세지 않음, BookIsbnFilter 효과 확인용)
+      cart   : 임의 ISBN 10개를 multi-get 한 번으로 (isbn 모드 10번과 비교, MVC 만)
+    429 / 503 + Retry-After(BulkheadInterceptor) 는 shed 로 따로 세고, 그 클라이언트는 Retry-After 만큼 쉰다 (지연 통계에서 제외)
+    baseUrl 을 쉼표로 여러 개 주면 같은 샘플로 차례대로 돌려 비교한다
+      예) MVC(8080) vs 리액티브 읽기 API(8081, ReactiveReadConfig - 앱을 --app.reactive.enabled=true 로 띄울 것)
+          http://localhost:8080,http://localhost:8081 64 30 mix
+ */
+public class BookApiLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String[] baseUrls = (args.length > 0 ? args[0] : "http://localhost:8080").split(",");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String mode = args.length > 3 ? args[3] : "mix";
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+
+        List<String> isbns = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        List<Long> cursors = new ArrayList<>();
+        loadSamples(client, baseUrls[0], isbns, titles, cursors);
+        if (isbns.isEmpty()) {
+            System.out.println("도서 데이터가 없습니다. 먼저 /api/books/bulk 로 데이터를 넣어주세요.");
+            return;
+        }
+
+        for (String baseUrl : baseUrls) {
+            run(client, baseUrl, concurrency, seconds, mode, isbns, titles, cursors);
+        }
+        System.exit(0);
+    }
+
+    private static void run(HttpClient client, String baseUrl, int concurrency, int seconds, String mode,
+                            List<String> isbns, List<String> titles, List<Long> cursors) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    boolean search = mode.equals("search") || (mode.equals("mix") && random.nextInt(10) < 3);
+                    String path = mode.equals("page")
+                            ? "/api/books?size=20&cursor=" + cursors.get(random.nextInt(cursors.size()))
+                            : mode.equals("cart")
+                            ? "/api/books/multi-get?isbns=" + String.join(",",
+                                    random.ints(10, 0, isbns.size()).mapToObj(isbns::get).toList())
+                            : mode.equals("miss")
+                            ? "/api/books/isbn/999" + (1_000_000_000L + random.nextLong(9_000_000_000L))
+                            : search
+                            ? "/api/books/search/title?title=" + encode(titles.get(random.nextInt(titles.size())))
+                            : "/api/books/isbn/" + isbns.get(random.nextInt(isbns.size()));
+
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+                        if (retryAfter.isPresent()) {
+                            shed.incrementAndGet();
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.get())));
+                            continue;
+                        }
+                        int expected = mode.equals("miss") ? 404 : 200;
+                        if (response.statusCode() != expected) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                    latencies[count++] = System.nanoTime() - started;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] part = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + part.length);
+            System.arraycopy(part, 0, all, offset, part.length);
+        }
+        workers.shutdown();
+        Arrays.sort(all);
+
+        System.out.printf("%s mode=%s concurrency=%d duration=%ds requests=%d errors=%d shed=%d%n",
+                baseUrl, mode, concurrency, seconds, all.length, errors.get(), shed.get());
+        System.out.printf("throughput=%.1f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    // 첫 몇 페이지에서 ISBN 과 제목 일부(앞 3글자), 페이지 커서를 샘플로 가져온다
+    private static void loadSamples(HttpClient client, String baseUrl, List<String> isbns,
+                                    List<String> titles, List<Long> cursors) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String cursor = "";
+        for (int page = 0; page < 10; page++) {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?size=100" + cursor)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode body = objectMapper.readTree(response.body());
+            for (JsonNode book : body.path("content")) {
+                isbns.add(book.path("isbn").asText());
+                String title = book.path("title").asText();
+                titles.add(title.length() > 3 ? title.substring(0, 3) : title);
+                cursors.add(book.path("id").asLong() - 1);
+            }
+            if (!body.path("hasNext").asBoolean()) break;
+            cursor = "&cursor=" + body.path("nextCursor").asLong();
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.rookies4.myspringbootlab.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.service.BookJsonCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    엔티티 → DTO 변환과 목록 응답 JSON 직렬화 (한 페이지 기준)
+    cachedJson: BookJsonCache 에 미리 렌더링된 도서별 JSON 을 이어 붙이는 경우 (모두 캐시 hit)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<Book> books;
+    private List<BookDTO.Response> responses;
+    private ObjectMapper objectMapper;
+    private BookJsonCache bookJsonCache;
+
+    @Setup
+    public void setUp() {
+        books = BenchFixtures.books(pageSize);
+        responses = books.stream().map(BookDTO.Response::fromEntity).toList();
+        // Spring Boot 기본 설정과 같은 ObjectMapper (JavaTimeModule, 날짜는 문자열)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookJsonCache = new BookJsonCache(objectMapper, 1_000);
+        bookJsonCache.array(responses);
+    }
+
+    @Benchmark
+    public List<BookDTO.Response> fromEntity() {
+        return books.stream().map(BookDTO.Response::fromEntity).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(books.stream().map(BookDTO.Response::fromEntity).toList());
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return bookJsonCache.array(responses);
+    }
+}
@@ -0,0 +1,110 @@
+package com.rookies4.myspringbootlab.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.properties.IsbnFilterProperties;
+import com.rookies4.myspringbootlab.repository.BookChangeRepository;
+import com.rookies4.myspringbootlab.repository.BookDetailRepository;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import com.rookies4.myspringbootlab.service.BookIsbnCache;
+import com.rookies4.myspringbootlab.service.BookIsbnFilter;
+import com.rookies4.myspringbootlab.service.BookService;
+import com.rookies4.myspringbootlab.service.BookTitleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+    PATCH 요청 본문 → 엔티티 반영 (DB 없이 BookService 로직만)
+    patch/patchDetail 은 매번 값이 바뀌도록 두 본문을 번갈아 적용하고,
+    patchUnchanged 는 같은 값을 다시 보내는 경우 (dirty checking 생략 경로)
+    readAndPatch 는 JSON 바이트를 읽는 비용까지 포함한 전체 경로
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookPatchBenchmark {
+
+    private static final byte[] PATCH_JSON = """
+            {"title":"Clean Code 2nd","price":"52000","publishDate":"2024-01-15",
+             "bookDetail":{"pageCount":480,"edition":"2nd","publisher":"Pearson"}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PATCH_JSON_2 = """
+            {"title":"Clean Code 3rd","price":"58000","publishDate":"2025-03-01",
+             "bookDetail":{"pageCount":500,"edition":"3rd","publisher":"Prentice Hall"}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DETAIL_PATCH_JSON = """
+            {"pageCount":"480","edition":"2nd","language":"Korean"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DETAIL_PATCH_JSON_2 = """
+            {"pageCount":"500","edition":"3rd","language":"English"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private BookService bookService;
+    private ObjectMapper objectMapper;
+    private BookDTO.PatchRequest[] patches;
+    private BookDTO.DetailPatchRequest[] detailPatches;
+    private int turn;
+
+    @Setup
+    public void setUp() throws Exception {
+        Book book = BenchFixtures.book(1);
+        BookRepository bookRepository = BenchFixtures.stub(BookRepository.class,
+                "findBookDetailByBookId", Optional.of(book));
+        EntityManager entityManager = BenchFixtures.stub(EntityManager.class,
+                "unwrap", BenchFixtures.stub(Session.class));
+
+        bookService = new BookService(
+                bookRepository,
+                BenchFixtures.stub(BookDetailRepository.class),
+                entityManager,
+                new BookIsbnCache(new ConcurrentMapCacheManager(BookIsbnCache.CACHE_NAME)),
+                new BookTitleIndex(bookRepository),
+                event -> { },
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new BookIsbnFilter(bookRepository, BenchFixtures.stub(BookChangeRepository.class), new IsbnFilterProperties(),
+                        BenchFixtures.stub(PlatformTransactionManager.class), new SimpleMeterRegistry()));
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        patches = new BookDTO.PatchRequest[]{
+                objectMapper.readValue(PATCH_JSON, BookDTO.PatchRequest.class),
+                objectMapper.readValue(PATCH_JSON_2, BookDTO.PatchRequest.class)};
+        detailPatches = new BookDTO.DetailPatchRequest[]{
+                objectMapper.readValue(DETAIL_PATCH_JSON, BookDTO.DetailPatchRequest.class),
+                objectMapper.readValue(DETAIL_PATCH_JSON_2, BookDTO.DetailPatchRequest.class)};
+    }
+
+    @Benchmark
+    public BookDTO.Response patch() {
+        return bookService.patch(1L, patches[turn++ & 1], null);
+    }
+
+    @Benchmark
+    public BookDTO.Response patchDetail() {
+        return bookService.patchDetail(1L, detailPatches[turn++ & 1], null);
+    }
+
+    @Benchmark
+    public BookDTO.Response patchUnchanged() {
+        return bookService.patch(1L, patches[0], null);
+    }
+
+    @Benchmark
+    public BookDTO.Response readAndPatch() throws Exception {
+        return bookService.patch(1L, objectMapper.readValue(
+                (turn++ & 1) == 0 ? PATCH_JSON : PATCH_JSON_2, BookDTO.PatchRequest.class), null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.rookies4.myspringbootlab.bench;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/*
+    BookDTO.Request 의 ISBN 정규식 (lookahead 로 숫자 개수를 세는 패턴)
+    정규식 단독 비용과 Bean Validation 전체 비용을 나눠서 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IsbnValidationBenchmark {
+
+    private static final Pattern ISBN = Pattern.compile("^(?=(?:\\D*\\d){10}(?:(?:\\D*\\d){3})?$)[\\d-]+$");
+
+    @Param({"978-0-13-235088-4", "9780132350884", "978-0-13-235088-4-0000"})
+    private String isbn;
+
+    private Validator validator;
+    private BookDTO.Request request;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        request = BookDTO.Request.builder()
+                .title("Clean Code")
+                .author("Robert C. Martin")
+                .isbn(isbn)
+                .price(45000)
+                .publishDate(LocalDate.of(2008, 8, 1))
+                .build();
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return ISBN.matcher(isbn).matches();
+    }
+
+    @Benchmark
+    public int validateRequest() {
+        return validator.validate(request).size();
+    }
+}
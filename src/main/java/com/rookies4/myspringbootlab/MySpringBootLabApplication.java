@@ -7,7 +7,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 
 @SpringBootApplication
-class MySpringBootLabApplication {
+public class MySpringBootLabApplication {
     public static void main(String[] args) {
 
         SpringApplication application = new SpringApplication(MySpringBootLabApplication.class);
@@ -0,0 +1,156 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.BulkheadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    AIMD 동시 실행 제한 (엔드포인트 분류 하나에 하나, BulkheadInterceptor)
+    - 실행 중 < 상한이고 기다리는 요청이 없으면 바로 통과, 아니면 max-queue 까지 max-wait 동안 순서대로 대기
+      대기열이 차 있으면 바로 429, max-wait 안에 자리가 안 나면 503
+      Retry-After 는 최근 지연(EWMA) 으로 앞에 있는 요청이 빠지는 데 걸릴 시간을 어림한 값
+    - 끝난 요청의 지연이 target-latency 이하이고 상한을 절반 넘게 쓰고 있었으면 상한 += 1/상한 (상한만큼 성공하면 +1)
+      넘으면 상한 *= backoff-ratio (연달아 줄지 않도록 target-latency 에 한 번까지)
+ */
+public class AdaptiveLimiter {
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final BulkheadProperties.Limit config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private double latencyEwmaNanos;
+    private long lastDecreaseAt = System.nanoTime();
+
+    private final Counter admitted;
+    private final Counter queued;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public AdaptiveLimiter(String name, BulkheadProperties.Limit config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = config.getMaxConcurrent();
+        this.admitted = Counter.builder("book.bulkhead.admitted")
+                .description("통과한 요청 수 (기다렸다 통과한 요청 포함)")
+                .tag("class", name).register(meterRegistry);
+        this.queued = Counter.builder("book.bulkhead.queued")
+                .description("자리가 없어 대기열에 들어간 요청 수")
+                .tag("class", name).register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("book.bulkhead.rejected")
+                .description("거절한 요청 수 (queue_full: 429, timeout: 503)")
+                .tags("class", name, "reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("book.bulkhead.rejected")
+                .description("거절한 요청 수 (queue_full: 429, timeout: 503)")
+                .tags("class", name, "reason", "timeout").register(meterRegistry);
+        Gauge.builder("book.bulkhead.limit", this, limiter -> limiter.limit)
+                .description("현재 동시 실행 상한")
+                .tag("class", name).register(meterRegistry);
+        Gauge.builder("book.bulkhead.in_flight", this, limiter -> limiter.inFlight)
+                .description("실행 중인 요청 수")
+                .tag("class", name).register(meterRegistry);
+        Gauge.builder("book.bulkhead.waiting", this, limiter -> limiter.waiting)
+                .description("대기 중인 요청 수")
+                .tag("class", name).register(meterRegistry);
+    }
+
+    /** 자리가 날 때까지 (최대 max-wait) 기다렸다가 차지, 안 되면 RetryLaterException (429 / 503) */
+    public void acquire() {
+        lock.lock();
+        try {
+            if (waiting == 0 && inFlight < (int) limit) {
+                inFlight++;
+                admitted.increment();
+                return;
+            }
+            if (waiting >= config.getMaxQueue()) {
+                rejectedQueueFull.increment();
+                throw new RetryLaterException("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.",
+                        HttpStatus.TOO_MANY_REQUESTS, retryAfter());
+            }
+
+            waiting++;
+            queued.increment();
+            try {
+                long remaining = config.getMaxWait().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejectedTimeout.increment();
+                        throw new RetryLaterException("서버가 바쁩니다. 잠시 후 다시 시도해 주세요.",
+                                HttpStatus.SERVICE_UNAVAILABLE, retryAfter());
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedTimeout.increment();
+                throw new RetryLaterException("서버가 바쁩니다. 잠시 후 다시 시도해 주세요.",
+                        HttpStatus.SERVICE_UNAVAILABLE, retryAfter());
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            admitted.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 차지한 자리를 돌려주고, 걸린 시간으로 상한을 조정 */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            boolean saturated = inFlight * 2 >= before;
+            inFlight--;
+            latencyEwmaNanos = latencyEwmaNanos == 0 ? latencyNanos
+                    : latencyEwmaNanos + EWMA_WEIGHT * (latencyNanos - latencyEwmaNanos);
+            adjust(latencyNanos, saturated);
+
+            if ((int) limit > before) released.signalAll();
+            else released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(long latencyNanos, boolean saturated) {
+        Duration target = config.getTargetLatency();
+        if (target == null || target.isZero()) return;
+
+        long now = System.nanoTime();
+        if (latencyNanos > target.toNanos()) {
+            if (now - lastDecreaseAt >= target.toNanos()) {
+                limit = Math.max(config.getMinConcurrent(), limit * config.getBackoffRatio());
+                lastDecreaseAt = now;
+            }
+        } else if (saturated) {
+            limit = Math.min(config.getMaxConcurrent(), limit + 1 / limit);
+        }
+    }
+
+    // 앞에 있는 요청(실행 중 + 대기 중)이 상한만큼씩 빠진다고 보고 걸릴 시간
+    private Duration retryAfter() {
+        double nanos = latencyEwmaNanos * (inFlight + waiting + 1) / Math.max(1, (int) limit);
+        return Duration.ofNanos((long) Math.min(nanos, MAX_RETRY_AFTER.toNanos()));
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,24 @@
+package com.rookies4.myspringbootlab.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+    엔드포인트 분류별 동시 실행 제한 (@Bulkhead, app.bulkhead.*)
+    /actuator/metrics 의 book.bulkhead.* (class 태그)
+      admitted / queued / rejected(reason=queue_full|timeout) : 통과 / 대기 / 거절 수
+      limit / in_flight / waiting                           : 현재 상한 / 실행 중 / 대기 중
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor).addPathPatterns("/api/**");
+    }
+}
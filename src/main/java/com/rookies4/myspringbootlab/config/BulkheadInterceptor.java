@@ -0,0 +1,62 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.rookies4.myspringbootlab.controller.Bulkhead;
+import com.rookies4.myspringbootlab.properties.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+    @Bulkhead 가 붙은 핸들러를 분류별 AdaptiveLimiter 로 감싼다 (거절하면 RetryLaterException → 429 / 503 + Retry-After)
+    스트리밍 응답은 비동기 디스패치가 끝날 때(응답을 다 보낸 뒤) 자리를 돌려준다.
+ */
+@Component
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private record Permit(AdaptiveLimiter limiter, long startedAt) {
+    }
+
+    private final BulkheadProperties properties;
+    private final Map<Bulkhead.Type, AdaptiveLimiter> limiters = new EnumMap<>(Bulkhead.Type.class);
+
+    public BulkheadInterceptor(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (Bulkhead.Type type : Bulkhead.Type.values()) {
+            limiters.put(type, new AdaptiveLimiter(type.name().toLowerCase(Locale.ROOT), properties.of(type), meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 재디스패치면 이미 차지한 자리가 있다
+        if (!properties.isEnabled() || request.getAttribute(PERMIT_ATTRIBUTE) != null
+                || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) return true;
+
+        AdaptiveLimiter limiter = limiters.get(bulkhead.value());
+        limiter.acquire();
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(System.nanoTime() - permit.startedAt());
+        }
+    }
+}
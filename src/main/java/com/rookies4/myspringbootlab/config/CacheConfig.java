@@ -0,0 +1,13 @@
+package com.rookies4.myspringbootlab.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    캐시 이름/크기/TTL 은 application.properties 의 spring.cache.* 에서 설정
+    hit/miss/eviction 지표는 /actuator/metrics/cache.gets, cache.evictions 로 확인
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+}
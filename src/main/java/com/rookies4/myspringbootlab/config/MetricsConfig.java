@@ -0,0 +1,34 @@
+package com.rookies4.myspringbootlab.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+    /actuator/metrics 로 보는 지표
+      http.server.requests              : 엔드포인트별 지연 (히스토그램)
+      book.service                      : BookService 메서드별 지연 (@Timed)
+      spring.data.repository.invocations: 리포지토리 메서드별 호출 수 / 지연
+      hibernate.*                       : 문장 수, flush, 2차 캐시 hit/miss (hibernate-micrometer)
+      hibernate.statements.per.request  : 요청당 SQL 수 (StatementCountInterceptor)
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final StatementCountInterceptor statementCountInterceptor;
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementCountInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,98 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.controller.ReactiveBookHandler;
+import com.rookies4.myspringbootlab.properties.ReactiveReadProperties;
+import com.rookies4.myspringbootlab.repository.ReactiveBookRepository;
+import com.rookies4.myspringbootlab.service.BookIsbnCache;
+import com.rookies4.myspringbootlab.service.BookIsbnFilter;
+import com.rookies4.myspringbootlab.service.BookTitleIndex;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/*
+    리액티브 읽기 API (app.reactive.enabled=true, 웹 서버로 띄울 때만. 기본은 꺼짐)
+    MVC(Tomcat) 는 그대로 두고 app.reactive.port 에 Reactor Netty 서버를 하나 더 띄운다.
+    조회는 JDBC/JPA 대신 R2DBC 로 같은 books / book_details 를 읽고, 쓰기는 계속 MVC → BookService.
+    드라이버는 r2dbc-h2 / r2dbc-mariadb 가 들어 있고, 다른 DB 는 드라이버를 추가하고 app.reactive.url 을 지정한다.
+
+    ConnectionFactory 는 일부러 빈으로 등록하지 않는다:
+    빈이 있으면 DataSourceAutoConfiguration 이 물러나고 R2dbcTransactionManager 때문에 JPA 트랜잭션 매니저도 안 만들어진다.
+    (같은 이유로 R2dbcAutoConfiguration 은 application.properties 에서 제외)
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean
+    public ReactiveBookRepository reactiveBookRepository(ReactiveReadProperties properties,
+                                                         DataSourceProperties dataSourceProperties) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl(properties, dataSourceProperties))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername() != null
+                        ? properties.getUsername() : dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword() != null
+                        ? properties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(Math.min(properties.getInitialPoolSize(), properties.getMaxPoolSize()))
+                .maxSize(properties.getMaxPoolSize())
+                .build());
+        return new ReactiveBookRepository(pool);
+    }
+
+    @Bean
+    public ReactiveBookHandler reactiveBookHandler(ReactiveBookRepository reactiveBookRepository,
+                                                   BookIsbnCache bookIsbnCache, BookIsbnFilter bookIsbnFilter,
+                                                   BookTitleIndex bookTitleIndex, ReactiveReadProperties properties) {
+        return new ReactiveBookHandler(reactiveBookRepository, bookIsbnCache, bookIsbnFilter, bookTitleIndex,
+                properties.getStreamChunkSize());
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveBookHandler reactiveBookHandler, ObjectMapper objectMapper,
+                                                 ReactiveReadProperties properties) {
+        // MVC 와 같은 ObjectMapper (날짜 형식 등 응답 JSON 이 같도록)
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(reactiveBookHandler.routes(), strategies);
+        return new ReactiveReadServer(httpHandler, properties.getPort());
+    }
+
+    // jdbc:h2:mem:books;OPT=.. → r2dbc:h2:mem:///books;OPT=.. (H2 는 같은 JVM 이면 같은 DB 를 연다)
+    // jdbc:mariadb://host:3306/books?.. → r2dbc:mariadb://host:3306/books?..
+    static String r2dbcUrl(ReactiveReadProperties properties, DataSourceProperties dataSourceProperties) {
+        if (properties.getUrl() != null && !properties.getUrl().isBlank()) return properties.getUrl();
+
+        String jdbcUrl = dataSourceProperties.determineUrl();
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:h2:")) {
+            String rest = jdbcUrl.substring("jdbc:h2:".length());
+            int colon = rest.indexOf(':');
+            if (colon > 0) {
+                return "r2dbc:h2:" + rest.substring(0, colon) + ":///" + rest.substring(colon + 1);
+            }
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:mariadb:")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        throw new IllegalStateException("app.reactive.url 을 설정해 주세요 (H2 / MariaDB 가 아닌 DB: " + jdbcUrl + ")");
+    }
+}
@@ -0,0 +1,46 @@
+package com.rookies4.myspringbootlab.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/*
+    리액티브 읽기 API 용 Reactor Netty 서버 (ReactiveReadConfig)
+    컨텍스트가 시작될 때 같이 뜨고 종료될 때 멈춘다 (ConnectionPool 은 ReactiveBookRepository 가 빈 소멸 시 정리)
+ */
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private WebServer webServer;
+
+    public ReactiveReadServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        webServer = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+        webServer.start();
+        log.info("리액티브 읽기 API 시작 - port {}", webServer.getPort());
+    }
+
+    @Override
+    public void stop() {
+        webServer.stop();
+        webServer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+
+    public int getPort() {
+        return webServer != null ? webServer.getPort() : -1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rookies4.myspringbootlab.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/*
+    heartbeat 테이블로 replica 지연을 잰다 (DB 종류와 무관, 복제 상태 조회 권한도 필요 없음)
+      1) primary 에 현재 시각을 기록
+      2) replica 에서 같은 행을 읽어
+         - 방금 쓴 값이 보이면 지연 0
+         - 예전 값이면 (지금 - 그 값) 만큼 뒤처진 것
+    측정 실패 / 지연 초과 시 replica 를 쓰지 않는다. 측정 전(기동 직후)에도 primary 로 읽는다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String CREATE_HEARTBEAT_TABLE =
+            "create table if not exists replication_heartbeat (id int primary key, beat_at timestamp(3) not null)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+    private volatile Duration lag;   // null = 측정 실패
+    private boolean heartbeatTableReady;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval:1s}",
+            initialDelayString = "${app.datasource.routing.lag-check-interval:1s}")
+    public void check() {
+        Duration measured;
+        try {
+            measured = measure();
+        } catch (DataAccessException e) {
+            log.warn("replica 지연 측정 실패: {}", e.getMessage());
+            measured = null;
+        }
+        boolean usable = measured != null && measured.compareTo(maxLag) <= 0;
+        if (usable != replicaUsable) {
+            log.info("replica {} (lag={}, maxLag={})", usable ? "사용" : "제외 - primary 로 읽기", measured, maxLag);
+        }
+        lag = measured;
+        replicaUsable = usable;
+    }
+
+    private Duration measure() {
+        Instant beat = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!heartbeatTableReady) {
+            primary.execute(CREATE_HEARTBEAT_TABLE);
+            heartbeatTableReady = true;
+        }
+        if (primary.update("update replication_heartbeat set beat_at = ? where id = 1", Timestamp.from(beat)) == 0) {
+            primary.update("insert into replication_heartbeat (id, beat_at) values (1, ?)", Timestamp.from(beat));
+        }
+
+        Instant seen = replica.queryForObject(
+                "select beat_at from replication_heartbeat where id = 1", Timestamp.class).toInstant();
+        return seen.equals(beat) ? Duration.ZERO : Duration.between(seen, Instant.now());
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Duration getLag() {
+        return lag;
+    }
+}
@@ -0,0 +1,62 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.rookies4.myspringbootlab.properties.DataSourceRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/*
+    primary / replica 두 커넥션 풀 + 읽기 전용 트랜잭션 라우팅 (app.datasource.routing.enabled=true 일 때만)
+      primary : spring.datasource.* (spring.datasource.hikari.* 도 그대로 적용)
+      replica : app.datasource.replica.* (Hikari 속성: jdbc-url, username, password, maximum-pool-size ...)
+    JPA / JdbcTemplate 은 @Primary 인 dataSource (Lazy 프록시 → 라우팅) 를 사용한다.
+ */
+@EnableScheduling
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               DataSourceRoutingProperties properties) {
+        return new ReplicaLagMonitor(primary, replica, properties.getMaxLag());
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+        routing.afterPropertiesSet();
+        // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 가져와야 readOnly 여부로 고를 수 있다
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,44 @@
+package com.rookies4.myspringbootlab.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.OptionalInt;
+
+/*
+    Hibernate 가 준비하는 SQL 을 요청(스레드) 단위로 센다 - N+1 회귀 탐지용
+    start() ~ stop() 사이에 같은 스레드에서 나간 문장만 센다. (JDBC 배치는 준비 1번 = 1개)
+    SQL 을 다른 스레드에 맡기는 코드는 exclude() 로 그 요청을 기록에서 뺀다 (요청 스레드 몫만 세면 0 에 가깝게 나옴)
+ */
+public class StatementCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Counter> COUNTER = new ThreadLocal<>();
+
+    static void start() {
+        COUNTER.set(new Counter());
+    }
+
+    /** 세는 중이 아니거나 exclude() 된 요청이면 empty */
+    static OptionalInt stop() {
+        Counter counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null || counter.excluded ? OptionalInt.empty() : OptionalInt.of(counter.statements);
+    }
+
+    /** 현재 요청의 SQL 이 다른 스레드에서 나가므로 기록하지 않는다 */
+    public static void exclude() {
+        Counter counter = COUNTER.get();
+        if (counter != null) counter.excluded = true;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counter counter = COUNTER.get();
+        if (counter != null) counter.statements++;
+        return sql;
+    }
+
+    private static final class Counter {
+        private int statements;
+        private boolean excluded;
+    }
+}
@@ -0,0 +1,67 @@
+package com.rookies4.myspringbootlab.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.OptionalInt;
+
+/*
+    요청 1건당 SQL 문장 수를 hibernate.statements.per.request (method, uri 태그) 로 기록
+    임계값을 넘으면 WARN 로그 (N+1 의심)
+    요청 스레드 밖에서 SQL 이 나가는 요청은 기록하지 않는다 (요청 스레드 몫만 세면 0 에 가깝게 나옴)
+      - 스트리밍 응답처럼 비동기로 넘어가는 요청: 첫 dispatch 는 afterConcurrentHandlingStarted 에서 버리고,
+        응답을 마무리하는 ASYNC 재dispatch 는 세지 않는다
+      - multi-get 처럼 다른 스레드에 조회를 맡기는 요청: 맡기는 쪽에서 StatementCountInspector.exclude()
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatementCountInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.statements-per-request-warn:30}")
+    private int warnThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) StatementCountInspector.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        StatementCountInspector.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        OptionalInt counted = StatementCountInspector.stop();
+        if (counted.isEmpty()) return;
+        int statements = counted.getAsInt();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("hibernate.statements.per.request")
+                .description("HTTP 요청 1건이 실행한 SQL 문장 수")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            log.warn("요청 1건에 SQL {}개 실행 (N+1 의심): {} {}", statements, request.getMethod(), request.getRequestURI());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.rookies4.myspringbootlab.config;
 
 
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -14,4 +16,13 @@ public class TestConfig {
                 .mode("개발환경")
                 .build();
     }
+
+    // 개발: 2차 캐시 끔 (모든 조회 SQL 이 그대로 보이도록)
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
     }
@@ -1,13 +1,37 @@
 package com.rookies4.myspringbootlab.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import com.rookies4.myspringbootlab.service.BookBatchLoader;
+import com.rookies4.myspringbootlab.service.BookChangeFeed;
+import com.rookies4.myspringbootlab.service.BookExporter;
+import com.rookies4.myspringbootlab.service.BookJsonCache;
+import com.rookies4.myspringbootlab.exception.BusinessException;
 import com.rookies4.myspringbootlab.service.BookService;
+import com.rookies4.myspringbootlab.service.DetailWriteBehind;
+import com.rookies4.myspringbootlab.service.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,59 +39,333 @@ import java.util.Map;
 public class BookController {
 
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final OptimisticRetry optimisticRetry;
+    private final BookJsonCache bookJsonCache;
+    private final DetailWriteBehind detailWriteBehind;
+    private final BookExporter bookExporter;
+    private final BookChangeFeed bookChangeFeed;
+    private final BookBatchLoader bookBatchLoader;
 
-    // 전체 목록
+    // 전체 목록 (커서 페이지네이션, 응답 모양은 BookDTO.CursorPage)
+    // id/버전만 먼저 읽어서 ETag 가 같으면 304 (목록 조회/DTO 변환/직렬화 생략)
+    // 아니면 캐시된 도서별 JSON 을 이어 붙이고, 캐시에 없는 도서만 DB 에서 읽는다
+    @Bulkhead(Bulkhead.Type.POINT_READ)
     @GetMapping
-    public ResponseEntity<List<BookDTO.Response>> getAll() {
-        return ResponseEntity.ok(bookService.getAll());
+    public ResponseEntity<byte[]> getPage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest) {
+        List<BookRepository.VersionView> versions = bookService.getPageVersions(cursor, size);
+        int pageSize = BookService.pageSizeOf(size);
+        if (webRequest.checkNotModified(BookETags.ofPage(versions, pageSize), BookETags.lastModifiedOf(versions))) {
+            return null;
+        }
+        return json(bookJsonCache.page(versions, pageSize, bookService::getByIds));
+    }
+
+    // 전체 목록 스트리밍 (Accept: application/x-ndjson, 한 줄에 한 권)
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamNdjson() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                bookService.streamAll(response -> {
+                    try {
+                        generator.writeObject(response);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // 전체 목록 스트리밍 (chunked JSON 배열)
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamArray() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                bookService.streamAll(response -> {
+                    try {
+                        generator.writeObject(response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // 전체 내보내기 (야간 배치용): format=csv|ndjson, gzip=true 면 .gz 파일로
+    // JDBC 커서에서 바로 쓰므로 행 수와 관계없이 메모리 일정 (BookExporter)
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        BookExporter.Format exportFormat = BookExporter.Format.of(format);
+        String filename = "books." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                bookExporter.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                bookExporter.export(exportFormat, out);
+            }
+        };
+        // gzip 이면 application/gzip 이라 server.compression 이 다시 압축하지 않는다
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
     // ISBN 조회
+    @Bulkhead(Bulkhead.Type.POINT_READ)
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<BookDTO.Response> getByIsbn(@PathVariable String isbn) {
-        return ResponseEntity.ok(bookService.getByIsbn(isbn));
+    public ResponseEntity<byte[]> getByIsbn(@PathVariable String isbn, WebRequest webRequest) {
+        BookDTO.Response book = bookService.getByIsbn(isbn);
+        if (webRequest.checkNotModified(BookETags.of(book), BookETags.lastModifiedOf(book))) {
+            return null;
+        }
+        return json(bookJsonCache.getOrRender(book));
+    }
+
+    // 여러 권 조회 (?ids=1,2&isbns=978..,978.. 또는 POST 본문 MultiGetRequest)
+    // 동시에 들어온 요청들의 키를 합쳐 IN 쿼리 한 번으로, 같은 키는 조회 한 번의 결과를 나눠 받는다
+    @Bulkhead(Bulkhead.Type.POINT_READ)
+    @GetMapping("/multi-get")
+    public ResponseEntity<BookDTO.MultiGetResponse> multiGet(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<String> isbns) {
+        return ResponseEntity.ok(bookBatchLoader.get(ids, isbns));
+    }
+
+    @Bulkhead(Bulkhead.Type.POINT_READ)
+    @PostMapping("/multi-get")
+    public ResponseEntity<BookDTO.MultiGetResponse> multiGet(@RequestBody BookDTO.MultiGetRequest request) {
+        return ResponseEntity.ok(bookBatchLoader.get(request.getIds(), request.getIsbns()));
     }
 
     // 저자 검색
+    @Bulkhead(Bulkhead.Type.SEARCH)
     @GetMapping("/search/author")
-    public ResponseEntity<List<BookDTO.Response>> searchByAuthor(@RequestParam String author) {
-        return ResponseEntity.ok(bookService.searchByAuthor(author));
+    public ResponseEntity<byte[]> searchByAuthor(
+            @RequestParam String author,
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int size) {
+        return json(bookJsonCache.array(bookService.searchByAuthor(author, prefix, page, size)));
+    }
+
+    // 저자 자동완성
+    @Bulkhead(Bulkhead.Type.SEARCH)
+    @GetMapping("/search/author/suggest")
+    public ResponseEntity<List<String>> suggestAuthors(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(bookService.suggestAuthors(q, size));
     }
 
     // 제목 검색
+    @Bulkhead(Bulkhead.Type.SEARCH)
     @GetMapping("/search/title")
-    public ResponseEntity<List<BookDTO.Response>> searchByTitle(@RequestParam String title) {
-        return ResponseEntity.ok(bookService.searchByTitle(title));
+    public ResponseEntity<byte[]> searchByTitle(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int size) {
+        return json(bookJsonCache.array(bookService.searchByTitle(title, page, size)));
+    }
+
+    // 카탈로그 조회: 조건(모두 선택) 조합 + 출판사/언어/연도 패싯
+    // 예) /api/books/query?minPrice=10000&maxPrice=30000&language=Korean&publishedFrom=2020-01-01
+    @Bulkhead(Bulkhead.Type.SEARCH)
+    @GetMapping("/query")
+    public ResponseEntity<BookDTO.QueryResponse> query(
+            @ModelAttribute BookDTO.QueryCondition condition,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "true") boolean facets,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_FACET_SIZE) int facetSize) {
+        return ResponseEntity.ok(bookService.query(condition, page, size, facets, facetSize));
+    }
+
+    // 변경 피드 (NDJSON): after 다음 변경부터 지금까지 한 줄에 하나, 다 보내면 끝
+    // 폴링 대신 마지막으로 받은 seq 를 after 로 넘기면 그 사이 변경분만 받는다
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping("/changes")
+    public ResponseEntity<StreamingResponseBody> changes(@RequestParam(defaultValue = "0") long after) {
+        bookChangeFeed.checkResumable(after);   // 스트리밍 시작 전에 410 을 돌려주도록
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                bookChangeFeed.stream(after, change -> {
+                    try {
+                        generator.writeObject(change);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // 변경 피드 (SSE, Accept: text/event-stream): after 또는 재연결 시 Last-Event-ID 다음부터 보내고 새 변경을 계속 push
+    // 둘 다 없으면 지금 이후 변경만. 보관 기간이 지난 위치면 410 (전체 목록부터 다시)
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookChangeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
+    // 변경 피드 현재 seq: 전체 목록을 읽기 전에 받아 두고 그 seq 부터 구독
+    @Bulkhead(Bulkhead.Type.POINT_READ)
+    @GetMapping("/changes/head")
+    public ResponseEntity<BookDTO.ChangeFeedHead> changesHead() {
+        return ResponseEntity.ok(bookChangeFeed.head());
     }
 
     // 생성
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PostMapping
     public ResponseEntity<BookDTO.Response> create(@RequestBody BookDTO.Request request) {
         return ResponseEntity.ok(bookService.create(request));
     }
 
+    // 대량 등록 (JSON 배열)
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookDTO.BulkImportResponse> bulkImport(@RequestBody List<BookDTO.Request> requests) {
+        return ResponseEntity.ok(importInChunks(requests.iterator()));
+    }
+
+    // 대량 등록 (NDJSON, 한 줄에 한 권 - 본문 전체를 메모리에 올리지 않음)
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BookDTO.BulkImportResponse> bulkImportNdjson(InputStream body) throws IOException {
+        try (MappingIterator<BookDTO.Request> requests =
+                     objectMapper.readerFor(BookDTO.Request.class).readValues(body)) {
+            return ResponseEntity.ok(importInChunks(requests));
+        }
+    }
+
+    private BookDTO.BulkImportResponse importInChunks(Iterator<BookDTO.Request> requests) {
+        List<BookDTO.BulkResult> results = new ArrayList<>();
+        List<BookDTO.Request> chunk = new ArrayList<>(BookService.BULK_CHUNK_SIZE);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == BookService.BULK_CHUNK_SIZE) {
+                results.addAll(bookService.importBooks(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(bookService.importBooks(chunk, results.size()));
+        }
+        return BookDTO.BulkImportResponse.of(results);
+    }
+
     // 전체 수정
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PutMapping("/{id}")
     public ResponseEntity<BookDTO.Response> update(@PathVariable Long id,
-                                                   @RequestBody BookDTO.Request request) {
-        return ResponseEntity.ok(bookService.update(id, request));
+                                                   @RequestBody BookDTO.Request request,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(bookService.update(id, request, BookETags.parseIfMatch(id, ifMatch)));
     }
 
+    // 부분 수정: If-Match 가 있으면 그 버전일 때만 반영(412/409),
+    // 없으면 버전 충돌 시 최신 상태에 보낸 필드만 다시 적용 (최대 OptimisticRetry.MAX_ATTEMPTS 회)
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PatchMapping("/{id}")
     public ResponseEntity<BookDTO.Response> patch(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> fields) {
-        return ResponseEntity.ok(bookService.patch(id, fields));
+            @RequestBody BookDTO.PatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookDTO.ExpectedVersion expected = BookETags.parseIfMatch(id, ifMatch);
+        return withETag(expected != null
+                ? bookService.patch(id, patch, expected)
+                : optimisticRetry.execute(() -> bookService.patch(id, patch, null)));
     }
 
+    // write-behind 모드(app.write-behind.enabled)면 If-Match 없는 요청은 대기열에 넣고 202 + 상태 조회 URL
+    // (If-Match 가 있는 조건부 수정은 항상 즉시 반영)
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PatchMapping("/{id}/detail")
-    public ResponseEntity<BookDTO.Response> patchDetail(
+    public ResponseEntity<?> patchDetail(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> fields) {
-        return ResponseEntity.ok(bookService.patchDetail(id, fields));
+            @RequestBody BookDTO.DetailPatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookDTO.ExpectedVersion expected = BookETags.parseIfMatch(id, ifMatch);
+        if (expected == null && detailWriteBehind.isEnabled()) {
+            BookDTO.DetailPatchStatus status = detailWriteBehind.submit(id, patch);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/books/detail-patches/" + status.getTrackingId()))
+                    .body(status);
+        }
+        return withETag(expected != null
+                ? bookService.patchDetail(id, patch, expected)
+                : optimisticRetry.execute(() -> bookService.patchDetail(id, patch, null)));
+    }
+
+    // write-behind detail PATCH 처리 상태 (PENDING / APPLIED / FAILED)
+    @Bulkhead(Bulkhead.Type.POINT_READ)
+    @GetMapping("/detail-patches/{trackingId}")
+    public ResponseEntity<BookDTO.DetailPatchStatus> getDetailPatchStatus(@PathVariable String trackingId) {
+        BookDTO.DetailPatchStatus status = detailWriteBehind.getStatus(trackingId);
+        if (status == null) {
+            throw new BusinessException("처리 상태를 찾을 수 없습니다: " + trackingId, HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    // 수정 결과에 새 ETag 를 붙여서 다음 If-Match 에 바로 쓸 수 있게 함
+    private ResponseEntity<BookDTO.Response> withETag(BookDTO.Response book) {
+        return ResponseEntity.ok().eTag(BookETags.of(book)).body(book);
+    }
+
+    // 미리 렌더링된 JSON 을 그대로 본문에 (ByteArrayHttpMessageConverter)
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 대량 삭제 {"ids":[1,2,3]} - 없는 id 는 건너뜀
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BookDTO.BulkChangeResponse> bulkDelete(@RequestBody BookDTO.BulkDeleteRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new BusinessException("ids 는 비어 있을 수 없습니다.", HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(bookService.deleteBooks(request.getIds()));
+    }
+
+    // 대량 가격 변경 {"filter":{"publisher":"Hanbit"},"mode":"PERCENT","value":-10}
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping("/bulk-price")
+    public ResponseEntity<BookDTO.BulkChangeResponse> bulkPrice(@RequestBody BookDTO.BulkPriceRequest request) {
+        return ResponseEntity.ok(bookService.changePrices(request));
     }
 
     // 삭제
+    @Bulkhead(Bulkhead.Type.WRITE)
     @DeleteMapping("/{id}")
     public ResponseEntity<String> delete(@PathVariable Long id) {
         bookService.deleteBook(id);
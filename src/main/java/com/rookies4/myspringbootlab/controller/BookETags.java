@@ -0,0 +1,91 @@
+package com.rookies4.myspringbootlab.controller;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/*
+    조건부 GET 용 ETag / Last-Modified 계산
+    - 단건 : 강한 ETag "id-bookVersion-detailVersion"
+    - 목록 : 페이지에 들어가는 (id, version, detailVersion) 전체의 64bit 해시.
+            Tomcat 은 강한 ETag 가 붙은 응답은 gzip 하지 않으므로(인코딩이 바뀌면 강한 ETag 도 달라야 함)
+            압축 대상인 목록은 약한 ETag(W/) 로 내보낸다.
+ */
+final class BookETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private BookETags() {
+    }
+
+    static String of(BookDTO.Response book) {
+        Long detailVersion = book.getDetail() != null ? book.getDetail().getVersion() : null;
+        return "\"" + book.getId() + "-" + book.getVersion() + "-" + (detailVersion != null ? detailVersion : "x") + "\"";
+    }
+
+    /**
+     * If-Match 헤더 → 기대 버전 (헤더가 없거나 * 이면 null = 조건 없음)
+     * 다른 도서의 ETag 이거나 형식이 틀리면 412
+     */
+    static BookDTO.ExpectedVersion parseIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        tag = tag.replace("\"", "");
+        String[] parts = tag.split("-");
+        try {
+            if (parts.length == 3 && Long.parseLong(parts[0]) == id) {
+                return new BookDTO.ExpectedVersion(
+                        Long.parseLong(parts[1]),
+                        parts[2].equals("x") ? null : Long.parseLong(parts[2]));
+            }
+        } catch (NumberFormatException ignored) {
+            // 아래에서 412
+        }
+        throw new BusinessException("If-Match 값이 이 도서의 ETag 가 아닙니다: " + ifMatch,
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /** versions 는 pageSize + 1 건까지 옴 (마지막 한 건은 hasNext 판단용이라 존재 여부만 반영) */
+    static String ofPage(List<BookRepository.VersionView> versions, int pageSize) {
+        long hash = FNV_OFFSET;
+        for (BookRepository.VersionView v : versions.subList(0, Math.min(pageSize, versions.size()))) {
+            hash = mix(hash, v.getId());
+            hash = mix(hash, v.getVersion() != null ? v.getVersion() : -1L);
+            hash = mix(hash, v.getDetailVersion() != null ? v.getDetailVersion() : -1L);
+        }
+        return "W/\"p" + versions.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /** 페이지 안에서 가장 최근 수정 시각 (없으면 -1 → Last-Modified 미사용) */
+    static long lastModifiedOf(List<BookRepository.VersionView> versions) {
+        long latest = -1;
+        for (BookRepository.VersionView v : versions) { // 다음 페이지 첫 건까지 포함돼도 Last-Modified 가 약간 앞당겨질 뿐
+            latest = Math.max(latest, toMillis(v.getUpdatedAt()));
+            latest = Math.max(latest, toMillis(v.getDetailUpdatedAt()));
+        }
+        return latest;
+    }
+
+    static long lastModifiedOf(BookDTO.Response book) {
+        return toMillis(book.getLastModified());
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
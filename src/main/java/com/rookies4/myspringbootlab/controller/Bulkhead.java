@@ -0,0 +1,25 @@
+package com.rookies4.myspringbootlab.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+    핸들러 메서드의 동시 실행 분류 - 분류마다 따로 제한한다 (BulkheadInterceptor, app.bulkhead.*)
+    느린 검색이 몰려도 단건 조회/쓰기가 쓸 Tomcat 스레드와 커넥션이 남도록.
+    붙이지 않은 핸들러(SSE 구독 등 자체 상한이 있는 것)는 제한하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Type value();
+
+    enum Type {
+        POINT_READ,   // id / ISBN 조회, 목록 페이지, 여러 권 조회 (대부분 캐시)
+        SEARCH,       // 저자/제목 검색, 카탈로그 조회 (패싯)
+        WRITE,        // 등록 / 수정 / 삭제
+        BULK          // 대량 등록/수정/삭제, 전체 스트리밍 / 내보내기 (응답을 다 보낼 때까지 차지)
+    }
+}
@@ -0,0 +1,163 @@
+package com.rookies4.myspringbootlab.controller;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.repository.ReactiveBookRepository;
+import com.rookies4.myspringbootlab.service.BookIsbnCache;
+import com.rookies4.myspringbootlab.service.BookIsbnFilter;
+import com.rookies4.myspringbootlab.service.BookService;
+import com.rookies4.myspringbootlab.service.BookTitleIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.headers;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/*
+    리액티브 읽기 API (app.reactive.enabled=true 일 때 app.reactive.port 에서, ReactiveReadConfig)
+    경로/파라미터/응답 모양은 BookController 의 조회 API 와 같다 → 클라이언트는 포트만 바꾸면 된다
+      GET /api/books?cursor=&size=               커서 페이지 (BookDTO.CursorPage)
+      GET /api/books  (Accept: x-ndjson)          전체 목록 스트리밍, 한 줄에 한 권
+      GET /api/books/stream                       전체 목록 스트리밍 (JSON 배열)
+      GET /api/books/isbn/{isbn}                  ISBN 조회 (BookIsbnCache 공유)
+      GET /api/books/search/author?author=&prefix=&page=&size=
+      GET /api/books/search/title?title=&page=&size=   (BookTitleIndex 공유)
+    스트리밍은 구독자(Netty 소켓) 요청량만큼만 DB 를 읽는다 (ReactiveBookRepository.streamAll)
+ */
+@RequiredArgsConstructor
+public class ReactiveBookHandler {
+
+    private final ReactiveBookRepository reactiveBookRepository;
+    private final BookIsbnCache bookIsbnCache;
+    private final BookIsbnFilter bookIsbnFilter;
+    private final BookTitleIndex bookTitleIndex;
+    private final int streamChunkSize;
+
+    public RouterFunction<ServerResponse> routes() {
+        // Accept: */* 도 accept(NDJSON) 에 걸리므로 명시적으로 x-ndjson 을 요청한 경우만 스트리밍
+        return route(GET("/api/books").and(headers(h -> h.accept().contains(MediaType.APPLICATION_NDJSON))),
+                        this::streamNdjson)
+                .andRoute(GET("/api/books"), this::getPage)
+                .andRoute(GET("/api/books/stream"), this::streamArray)
+                .andRoute(GET("/api/books/isbn/{isbn}"), this::getByIsbn)
+                .andRoute(GET("/api/books/search/author"), this::searchByAuthor)
+                .andRoute(GET("/api/books/search/title"), this::searchByTitle)
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(NumberFormatException.class, e -> problem(
+                                new BusinessException("숫자 파라미터가 올바르지 않습니다.", HttpStatus.BAD_REQUEST)))
+                        .onErrorResume(BusinessException.class, ReactiveBookHandler::problem));
+    }
+
+    // 전체 목록 (커서 페이지네이션) - 한 건 더 읽어서 다음 페이지 존재 여부 판단
+    private Mono<ServerResponse> getPage(ServerRequest request) {
+        long cursor = request.queryParam("cursor").map(Long::parseLong).orElse(0L);
+        int pageSize = BookService.pageSizeOf(intParam(request, "size", BookService.DEFAULT_PAGE_SIZE));
+        Mono<BookDTO.CursorPage> page = reactiveBookRepository.findPage(cursor, pageSize + 1)
+                .collectList()
+                .map(books -> {
+                    boolean hasNext = books.size() > pageSize;
+                    List<BookDTO.Response> content = hasNext ? books.subList(0, pageSize) : books;
+                    return BookDTO.CursorPage.builder()
+                            .content(content)
+                            .nextCursor(hasNext ? content.get(content.size() - 1).getId() : null)
+                            .hasNext(hasNext)
+                            .build();
+                });
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(page, BookDTO.CursorPage.class);
+    }
+
+    private Mono<ServerResponse> streamNdjson(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveBookRepository.streamAll(streamChunkSize), BookDTO.Response.class);
+    }
+
+    private Mono<ServerResponse> streamArray(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(reactiveBookRepository.streamAll(streamChunkSize), BookDTO.Response.class);
+    }
+
+    // ISBN 조회 (MVC 와 같은 캐시를 먼저 본다)
+    private Mono<ServerResponse> getByIsbn(ServerRequest request) {
+        String isbn = request.pathVariable("isbn");
+        BookDTO.Response cached = bookIsbnCache.get(isbn);
+        Mono<BookDTO.Response> book = cached != null ? Mono.just(cached)
+                : !bookIsbnFilter.mightContain(isbn) ? Mono.error(ReactiveBookHandler::isbnNotFound)
+                : Mono.defer(() -> {
+                    long readToken = bookIsbnCache.readToken();
+                    return reactiveBookRepository.findByIsbn(isbn)
+                            .doOnNext(response -> bookIsbnCache.putIfNotInvalidated(response, readToken));
+                })
+                .switchIfEmpty(Mono.error(ReactiveBookHandler::isbnNotFound));
+        return book.flatMap(response -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(response));
+    }
+
+    // 저자 검색 (BookService.searchByAuthor 와 같은 정규화/정렬)
+    private Mono<ServerResponse> searchByAuthor(ServerRequest request) {
+        String key = Book.authorKeyOf(request.queryParam("author").orElse(null));
+        if (key == null || key.isEmpty()) return json(Flux.empty());
+
+        boolean prefix = request.queryParam("prefix").map(Boolean::parseBoolean).orElse(false);
+        int page = Math.max(intParam(request, "page", 0), 0);
+        int size = BookService.pageSizeOf(intParam(request, "size", BookService.DEFAULT_PAGE_SIZE));
+        String keyOrPattern = prefix
+                ? key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%"
+                : key;
+        return json(reactiveBookRepository.findByAuthorKey(keyOrPattern, prefix, page * size, size));
+    }
+
+    // 제목 검색 (메모리 인덱스에서 순위/페이지 결정 후 해당 id 만 조회, 인덱스 순서 유지)
+    private Mono<ServerResponse> searchByTitle(ServerRequest request) {
+        int page = Math.max(intParam(request, "page", 0), 0);
+        int size = BookService.pageSizeOf(intParam(request, "size", BookService.DEFAULT_PAGE_SIZE));
+        List<Long> ids = bookTitleIndex.search(request.queryParam("title").orElse(""), page, size);
+        if (ids.isEmpty()) return json(Flux.empty());
+
+        Flux<BookDTO.Response> books = reactiveBookRepository.findByIdIn(ids)
+                .collect(Collectors.toMap(BookDTO.Response::getId, Function.identity()))
+                .flatMapIterable((Map<Long, BookDTO.Response> byId) -> ids.stream()
+                        .map(byId::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+        return json(books);
+    }
+
+    private static Mono<ServerResponse> json(Flux<BookDTO.Response> books) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(books, BookDTO.Response.class);
+    }
+
+    private static BusinessException isbnNotFound() {
+        return BusinessException.notFound("ISBN으로 책을 찾을 수 없습니다.");
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    // DefaultExceptionAdvice 와 같은 ProblemDetail 모양
+    private static Mono<ServerResponse> problem(BusinessException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(e.getHttpStatus());
+        problemDetail.setTitle(e.getHttpStatus().getReasonPhrase());
+        problemDetail.setDetail(e.getMessage());
+        problemDetail.setProperty("errorCategory", "Generic");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return ServerResponse.status(e.getHttpStatus())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .bodyValue(problemDetail);
+    }
+}
@@ -1,16 +1,23 @@
 package com.rookies4.myspringbootlab.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.entity.BookChange;
+import com.rookies4.myspringbootlab.entity.BookDetail;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.repository.BookFacetRepository;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.PositiveOrZero;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 
 public class BookDTO {
 
@@ -53,6 +60,156 @@ public class BookDTO {
         private String edition;
     }
 
+    /*
+        PATCH 본문. Jackson 은 본문에 있는 필드의 setter 만 호출하므로 setter 에서 비트를 켜서
+        "보낸 필드"를 기록한다. (명시적인 null 과 생략도 구분됨)
+        타입 변환은 Jackson 이 역직렬화하면서 바로 처리한다.
+     */
+    @Getter
+    @NoArgsConstructor
+    public static class PatchRequest {
+        private static final int TITLE = 1;
+        private static final int AUTHOR = 1 << 1;
+        private static final int ISBN = 1 << 2;
+        private static final int PRICE = 1 << 3;
+        private static final int PUBLISH_DATE = 1 << 4;
+
+        @Getter(AccessLevel.NONE)
+        private int present;
+
+        private String title;
+        private String author;
+        private String isbn;
+        private Integer price;
+        private LocalDate publishDate;
+        private DetailPatchRequest bookDetail;
+
+        public void setTitle(String title) { this.title = title; present |= TITLE; }
+        public void setAuthor(String author) { this.author = author; present |= AUTHOR; }
+        public void setIsbn(String isbn) { this.isbn = isbn; present |= ISBN; }
+        public void setPrice(Integer price) { this.price = price; present |= PRICE; }
+        public void setPublishDate(LocalDate publishDate) { this.publishDate = publishDate; present |= PUBLISH_DATE; }
+        public void setBookDetail(DetailPatchRequest bookDetail) { this.bookDetail = bookDetail; }
+
+        public boolean hasIsbn() {
+            return (present & ISBN) != 0;
+        }
+
+        /** 보낸 필드 중 값이 다른 것만 반영, 하나라도 바뀌면 true (ISBN 중복 확인은 호출 측 책임) */
+        public boolean applyTo(Book book) {
+            boolean changed = false;
+            if ((present & TITLE) != 0 && !Objects.equals(title, book.getTitle())) {
+                book.setTitle(title);
+                changed = true;
+            }
+            if ((present & AUTHOR) != 0 && !Objects.equals(author, book.getAuthor())) {
+                book.setAuthor(author);
+                changed = true;
+            }
+            if ((present & ISBN) != 0 && !Objects.equals(isbn, book.getIsbn())) {
+                book.setIsbn(isbn);
+                changed = true;
+            }
+            if ((present & PRICE) != 0 && !Objects.equals(price, book.getPrice())) {
+                book.setPrice(price);
+                changed = true;
+            }
+            if ((present & PUBLISH_DATE) != 0 && !Objects.equals(publishDate, book.getPublishDate())) {
+                book.setPublishDate(publishDate);
+                changed = true;
+            }
+            if (bookDetail != null && bookDetail.applyTo(book)) {
+                changed = true;
+            }
+            return changed;
+        }
+    }
+
+    @Getter
+    @NoArgsConstructor
+    public static class DetailPatchRequest {
+        private static final int DESCRIPTION = 1;
+        private static final int LANGUAGE = 1 << 1;
+        private static final int PAGE_COUNT = 1 << 2;
+        private static final int PUBLISHER = 1 << 3;
+        private static final int COVER_IMAGE_URL = 1 << 4;
+        private static final int EDITION = 1 << 5;
+
+        @Getter(AccessLevel.NONE)
+        private int present;
+
+        private String description;
+        private String language;
+        private Integer pageCount;
+        private String publisher;
+        private String coverImageUrl;
+        private String edition;
+
+        public void setDescription(String description) { this.description = description; present |= DESCRIPTION; }
+        public void setLanguage(String language) { this.language = language; present |= LANGUAGE; }
+        public void setPageCount(Integer pageCount) { this.pageCount = pageCount; present |= PAGE_COUNT; }
+        public void setPublisher(String publisher) { this.publisher = publisher; present |= PUBLISHER; }
+        public void setCoverImageUrl(String coverImageUrl) { this.coverImageUrl = coverImageUrl; present |= COVER_IMAGE_URL; }
+        public void setEdition(String edition) { this.edition = edition; present |= EDITION; }
+
+        /** 같은 도서에 대한 다음 패치를 덮어씀 (보낸 필드만, 나중 값 우선) - write-behind 합치기용 */
+        public DetailPatchRequest merge(DetailPatchRequest next) {
+            if ((next.present & DESCRIPTION) != 0) setDescription(next.description);
+            if ((next.present & LANGUAGE) != 0) setLanguage(next.language);
+            if ((next.present & PAGE_COUNT) != 0) setPageCount(next.pageCount);
+            if ((next.present & PUBLISHER) != 0) setPublisher(next.publisher);
+            if ((next.present & COVER_IMAGE_URL) != 0) setCoverImageUrl(next.coverImageUrl);
+            if ((next.present & EDITION) != 0) setEdition(next.edition);
+            return this;
+        }
+
+        /** book 의 detail 에 반영 (없으면 새로 만들어 연결), 하나라도 바뀌면 true */
+        public boolean applyTo(Book book) {
+            if (present == 0) return false;
+
+            boolean changed = false;
+            BookDetail detail = book.getBookDetail();
+            if (detail == null) {
+                detail = new BookDetail();
+                book.setBookDetail(detail); // 양방향 연결
+                changed = true;
+            }
+            if ((present & DESCRIPTION) != 0 && !Objects.equals(description, detail.getDescription())) {
+                detail.setDescription(description);
+                changed = true;
+            }
+            if ((present & LANGUAGE) != 0 && !Objects.equals(language, detail.getLanguage())) {
+                detail.setLanguage(language);
+                changed = true;
+            }
+            if ((present & PAGE_COUNT) != 0 && !Objects.equals(pageCount, detail.getPageCount())) {
+                detail.setPageCount(pageCount);
+                changed = true;
+            }
+            if ((present & PUBLISHER) != 0 && !Objects.equals(publisher, detail.getPublisher())) {
+                detail.setPublisher(publisher);
+                changed = true;
+            }
+            if ((present & COVER_IMAGE_URL) != 0 && !Objects.equals(coverImageUrl, detail.getCoverImageUrl())) {
+                detail.setCoverImageUrl(coverImageUrl);
+                changed = true;
+            }
+            if ((present & EDITION) != 0 && !Objects.equals(edition, detail.getEdition())) {
+                detail.setEdition(edition);
+                changed = true;
+            }
+            return changed;
+        }
+    }
+
+    /** If-Match 로 받은 기대 버전 (detailVersion 이 null 이면 detail 이 없던 상태) */
+    @Data
+    @AllArgsConstructor
+    public static class ExpectedVersion {
+        private Long version;
+        private Long detailVersion;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -64,21 +221,31 @@ public class BookDTO {
         private String isbn;
         private Integer price;
         private LocalDate publishDate;
+        private Long version;
+        private Instant lastModified;   // book / detail 중 나중에 수정된 시각
         private BookDetailResponse detail;
 
         public static Response fromEntity(Book book) {
-            BookDetailResponse detailResponse = book.getBookDetail() != null
+            BookDetail detail = book.getBookDetail();
+            BookDetailResponse detailResponse = detail != null
                     ? BookDetailResponse.builder()
-                    .id(book.getBookDetail().getId())
-                    .description(book.getBookDetail().getDescription())
-                    .language(book.getBookDetail().getLanguage())
-                    .pageCount(book.getBookDetail().getPageCount())
-                    .publisher(book.getBookDetail().getPublisher())
-                    .coverImageUrl(book.getBookDetail().getCoverImageUrl())
-                    .edition(book.getBookDetail().getEdition())
+                    .id(detail.getId())
+                    .description(detail.getDescription())
+                    .language(detail.getLanguage())
+                    .pageCount(detail.getPageCount())
+                    .publisher(detail.getPublisher())
+                    .coverImageUrl(detail.getCoverImageUrl())
+                    .edition(detail.getEdition())
+                    .version(detail.getVersion())
                     .build()
                     : null;
 
+            Instant lastModified = book.getUpdatedAt();
+            if (detail != null && detail.getUpdatedAt() != null
+                    && (lastModified == null || detail.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = detail.getUpdatedAt();
+            }
+
             return Response.builder()
                     .id(book.getId())
                     .title(book.getTitle())
@@ -86,6 +253,8 @@ public class BookDTO {
                     .isbn(book.getIsbn())
                     .price(book.getPrice())
                     .publishDate(book.getPublishDate())
+                    .version(book.getVersion())
+                    .lastModified(lastModified)
                     .detail(detailResponse)
                     .build();
         }
@@ -103,5 +272,199 @@ public class BookDTO {
         private String publisher;
         private String coverImageUrl;
         private String edition;
+        private Long version;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CursorPage {
+        private List<Response> content;
+        private Long nextCursor;   // 다음 페이지 요청 시 cursor 파라미터로 전달
+        private boolean hasNext;
+    }
+
+    // 카탈로그 조회 조건 (GET /api/books/query 쿼리 파라미터, 모두 선택)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QueryCondition {
+        private String author;        // 정규화 후 정확히 일치
+        private String title;         // 부분 일치
+        private Integer minPrice;
+        private Integer maxPrice;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate publishedFrom;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate publishedTo;
+        private String publisher;
+        private String language;
+    }
+
+    // 카탈로그 조회 결과. 각 패싯은 자기 조건만 뺀 나머지 조건으로 센다 (다른 값을 골랐을 때의 권수)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QueryResponse {
+        private List<Response> content;
+        private int page;
+        private int size;
+        private long totalElements;
+        private boolean hasNext;
+        private Facets facets;        // facets=false 면 null
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Facets {
+        private List<BookFacetRepository.FacetCount> publisher;
+        private List<BookFacetRepository.FacetCount> language;
+        private List<BookFacetRepository.FacetCount> year;
+    }
+
+    // 대량 삭제 요청 본문
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkDeleteRequest {
+        private List<Long> ids;
+    }
+
+    // 여러 권 조회 요청 본문 {"ids":[1,2],"isbns":["9788966262472"]} - 둘 중 하나만 있어도 됨
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MultiGetRequest {
+        private List<Long> ids;
+        private List<String> isbns;
+    }
+
+    // 여러 권 조회 결과: books 는 요청 순서(id 다음 ISBN, 같은 도서는 한 번), 없는 키는 missing 에
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MultiGetResponse {
+        private List<Response> books;
+        private List<Long> missingIds;
+        private List<String> missingIsbns;
+    }
+
+    // 대량 가격 변경 요청 본문: filter 는 카탈로그 조회 조건과 같음 ({} 면 전체)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkPriceRequest {
+        public enum Mode {
+            SET,       // price = value
+            ADD,       // price = price + value (음수면 인하, 0 미만은 0)
+            PERCENT    // price = price * (1 + value / 100), 반올림
+        }
+
+        private QueryCondition filter;
+        private Mode mode;
+        private Double value;
+    }
+
+    // 대량 변경 결과 (requested: 요청한 id 수 / 조건에 맞은 수, affected: 실제로 바뀐 행 수)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkChangeResponse {
+        private int requested;
+        private int matched;
+        private int affected;
+    }
+
+    // 변경 피드 한 건 (GET /api/books/changes, SSE 면 event id = seq, event name = type)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ChangeEvent {
+        private Long seq;
+        private BookChangedEvent.Type type;
+        private Long bookId;
+        private String isbn;
+        private Instant occurredAt;
+        @JsonRawValue
+        private String book;   // 변경 후 Response JSON 그대로 (삭제 / 대량 가격 변경이면 null → 다시 조회)
+
+        public static ChangeEvent fromEntity(BookChange change) {
+            return ChangeEvent.builder()
+                    .seq(change.getSeq())
+                    .type(change.getType())
+                    .bookId(change.getBookId())
+                    .isbn(change.getIsbn())
+                    .occurredAt(change.getOccurredAt())
+                    .book(change.getPayload())
+                    .build();
+        }
+    }
+
+    // 변경 피드 현재 위치: 전체 목록을 읽기 전에 seq 를 받아 두고 그 다음부터 구독하면 빠짐없이 이어진다
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ChangeFeedHead {
+        private long seq;
+        private long purgedThrough;   // 이 seq 까지는 보관 기간이 지나 지워짐 (더 앞에서 재개 불가)
+    }
+
+    // write-behind detail PATCH 의 처리 상태 (202 응답 본문 / 상태 조회)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DetailPatchStatus {
+        public enum State { PENDING, APPLIED, FAILED }
+
+        private String trackingId;
+        private Long bookId;
+        private State state;
+        private String message;    // 실패 사유
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkResult {
+        private int index;         // 요청 본문에서의 순번 (0부터)
+        private String isbn;
+        private boolean success;
+        private Long id;           // 성공 시 생성된 도서 id
+        private String message;    // 실패 사유
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkImportResponse {
+        private int total;
+        private int succeeded;
+        private int failed;
+        private List<BulkResult> results;
+
+        public static BulkImportResponse of(List<BulkResult> results) {
+            int succeeded = (int) results.stream().filter(BulkResult::isSuccess).count();
+            return BulkImportResponse.builder()
+                    .total(results.size())
+                    .succeeded(succeeded)
+                    .failed(results.size() - succeeded)
+                    .results(results)
+                    .build();
+        }
     }
 }
\ No newline at end of file
@@ -1,23 +1,53 @@
 package com.rookies4.myspringbootlab.entity;
 
 import jakarta.persistence.*;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.text.Normalizer;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
-@Table(name = "books")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")   // 2차 캐시 (ProdConfig 에서만 켜짐)
+@NaturalIdCache(region = "book-isbn")
+@DynamicUpdate // 바뀐 컬럼만 UPDATE (동시에 다른 필드를 고치는 PATCH 재시도가 서로 덮어쓰지 않도록)
+@Table(name = "books", indexes = {
+        // 저자 검색/자동완성: author_key 범위 검색 + author 까지 포함(커버링)
+        @Index(name = "idx_books_author_key", columnList = "author_key, author"),
+        // 카탈로그 조회: 가격/출간일 범위 + 연도 패싯을 인덱스만으로 (BookFacetRepositoryImpl)
+        @Index(name = "idx_books_price_publish_date", columnList = "price, publish_date"),
+        @Index(name = "idx_books_publish_date_price", columnList = "publish_date, price")
+})
 @Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class Book {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 insert 배치가 불가능해서 시퀀스(allocationSize 단위 선할당) 사용
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)  private String title;
     @Column(nullable = false)  private String author;
 
+    // 검색용 정규화 저자 (NFKC + 소문자 + 공백 하나로) - author 가 바뀔 때 같이 채워짐
+    @Column(name = "author_key", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String authorKey;
+
+    // 자연키 (PUT/PATCH 로 바뀔 수 있어서 mutable)
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String isbn;
 
@@ -28,11 +58,35 @@ public class Book {
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     private LocalDate publishDate;
 
+    // ETag / Last-Modified 용 (BookDetail 변경은 BookDetail 쪽 version/updatedAt 에 반영됨)
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // === 여기부터 1:1 매핑 ===
     @OneToOne(mappedBy = "book", fetch = FetchType.LAZY,
             cascade = CascadeType.ALL, orphanRemoval = true)
     private BookDetail bookDetail;
 
+    public void setAuthor(String author) {
+        this.author = author;
+        this.authorKey = authorKeyOf(author);
+    }
+
+    // 빌더로 생성한 경우에도 키가 비지 않도록
+    @PrePersist
+    void fillAuthorKey() {
+        this.authorKey = authorKeyOf(author);
+    }
+
+    public static String authorKeyOf(String author) {
+        if (author == null) return null;
+        String normalized = Normalizer.normalize(author, Normalizer.Form.NFKC);
+        return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
     /** 연관관계 편의 메서드 */
     public void setBookDetail(BookDetail detail) {
         this.bookDetail = detail;
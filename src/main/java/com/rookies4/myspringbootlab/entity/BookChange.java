@@ -0,0 +1,44 @@
+package com.rookies4.myspringbootlab.entity;
+
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+    변경 피드 outbox (GET /api/books/changes) - 커밋된 도서 변경 한 건
+    도서 변경과 같은 트랜잭션에서 기록된다 (BookChangeOutbox). seq 는 커밋 순서대로 1씩 증가 (BookChangeSequence)
+ */
+@Entity
+@Table(name = "book_changes", indexes = {
+        // 보관 기간이 지난 행 정리 (BookChangeFeed.purge)
+        @Index(name = "idx_book_changes_occurred_at", columnList = "occurred_at")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookChange {
+
+    // 직접 배정 (IDENTITY/시퀀스 값은 커밋 순서와 달라서 재개 위치로 쓸 수 없음)
+    @Id
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BookChangedEvent.Type type;
+
+    // 변경 후 ISBN (삭제면 삭제된 도서의 ISBN)
+    private String isbn;
+
+    // 변경 후 BookDTO.Response JSON (삭제, 대량 가격 변경처럼 새 상태 없이 무효화만 한 경우 null)
+    @Column(length = 8000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
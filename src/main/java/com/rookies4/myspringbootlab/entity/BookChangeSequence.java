@@ -0,0 +1,33 @@
+package com.rookies4.myspringbootlab.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+    변경 피드 seq 카운터 (행 하나). 쓰기 트랜잭션이 커밋 직전에 이 행을 잠그고 seq 를 배정하므로
+    잠금이 커밋까지 유지되어 seq 순서 = 커밋 순서가 된다 (작은 seq 가 나중에 커밋되어 구독자가 놓치는 일 없음)
+ */
+@Entity
+@Table(name = "book_change_sequence")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangeSequence {
+
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+    // 마지막으로 배정한 seq
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    // 보관 기간이 지나 지운 마지막 seq (이보다 앞에서 재개하려는 구독자는 410)
+    @Column(nullable = false)
+    private Long purgedThrough;
+
+    public long next() {
+        return ++lastSeq;
+    }
+}
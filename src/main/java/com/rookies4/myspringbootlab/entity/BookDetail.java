@@ -2,16 +2,32 @@ package com.rookies4.myspringbootlab.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "book_details")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-detail")
+@DynamicUpdate
+@Table(name = "book_details", indexes = {
+        // 카탈로그 조회: 출판사/언어 조건 → book_id, 도서 → 출판사/언어 패싯 모두 인덱스만으로
+        @Index(name = "idx_book_details_publisher", columnList = "publisher, language, book_id"),
+        @Index(name = "idx_book_details_language", columnList = "language, publisher, book_id"),
+        @Index(name = "idx_book_details_book_facets", columnList = "book_id, publisher, language")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BookDetail {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 insert 배치가 불가능해서 시퀀스(allocationSize 단위 선할당) 사용
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_detail_seq")
+    @SequenceGenerator(name = "book_detail_seq", sequenceName = "book_details_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY) // 지연 로딩
@@ -24,4 +40,10 @@ public class BookDetail {
     private String publisher;
     private String coverImageUrl;
     private String edition;
+
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
@@ -0,0 +1,41 @@
+package com.rookies4.myspringbootlab.event;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/*
+    BookService 의 쓰기 작업이 발행하는 이벤트.
+    캐시/인덱스처럼 커밋 이후에만 반영해야 하는 것들은 @TransactionalEventListener 로 받는다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long bookId;
+    private final String previousIsbn;    // 변경 전 ISBN (생성 시 null)
+    private final BookDTO.Response book;  // 변경 후 상태 (삭제 / 무효화 시 null)
+
+    public static BookChangedEvent created(BookDTO.Response book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), null, book);
+    }
+
+    public static BookChangedEvent updated(String previousIsbn, BookDTO.Response book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), previousIsbn, book);
+    }
+
+    // 대량 수정처럼 엔티티를 읽지 않고 바꾼 경우: 새 상태 없이 캐시에서 지우기만 한다
+    public static BookChangedEvent invalidated(Long bookId, String isbn) {
+        return new BookChangedEvent(Type.UPDATED, bookId, isbn, null);
+    }
+
+    public static BookChangedEvent deleted(Long bookId, String isbn) {
+        return new BookChangedEvent(Type.DELETED, bookId, isbn, null);
+    }
+}
@@ -18,4 +18,16 @@ public class BusinessException extends RuntimeException {
         this.message = message;
         this.httpStatus = httpStatus;
     }
+
+    // writableStackTrace=false: 스택 트레이스를 채우지 않음 (404 처럼 자주 나는 예상된 실패용, 생성 비용이 거의 없다)
+    public BusinessException(String message, HttpStatus httpStatus, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.message = message;
+        this.httpStatus = httpStatus;
+    }
+
+    /** 404 (스택 트레이스 없음) */
+    public static BusinessException notFound(String message) {
+        return new BusinessException(message, HttpStatus.NOT_FOUND, false);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.rookies4.myspringbootlab.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+/*
+    DB 유니크 제약 위반이 어느 테이블의 insert/update 에서 났는지 판별
+    DataIntegrityViolationException(커밋 시 변환) 안쪽이든 EntityManager.flush() 의 Hibernate 예외 그대로든 찾는다.
+    제약 이름은 DB/DDL 마다 달라서 (@OneToOne 의 book_id 유니크는 이름 없이 생성됨) 실행한 SQL 로 본다.
+    id 는 시퀀스라 겹치지 않으므로 books 면 isbn, book_details 면 book_id 충돌이다.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    public static boolean isUniqueViolationOn(Throwable e, String table) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        && writesTo(violation.getSQL(), table);
+            }
+        }
+        return false;
+    }
+
+    private static boolean writesTo(String sql, String table) {
+        if (sql == null) return false;
+        String statement = sql.trim().toLowerCase(Locale.ROOT);
+        return statement.startsWith("insert into " + table + " ") || statement.startsWith("update " + table + " ");
+    }
+}
@@ -0,0 +1,25 @@
+package com.rookies4.myspringbootlab.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/*
+    일시적인 거절 (대기열 포화, 과부하 등) - 응답에 Retry-After 헤더를 붙인다 (429 / 503)
+ */
+@Getter
+public class RetryLaterException extends BusinessException {
+    private static final long serialVersionUID = 1L;
+    private final Duration retryAfter;
+
+    public RetryLaterException(String message, HttpStatus httpStatus, Duration retryAfter) {
+        super(message, httpStatus);
+        this.retryAfter = retryAfter;
+    }
+
+    /** Retry-After 헤더 값 (초, 최소 1) */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
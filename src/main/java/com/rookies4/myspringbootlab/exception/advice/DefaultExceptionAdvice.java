@@ -1,12 +1,19 @@
 package com.rookies4.myspringbootlab.exception.advice;
 
 import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.exception.ConstraintViolations;
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import jakarta.persistence.OptimisticLockException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -35,7 +42,7 @@ public class DefaultExceptionAdvice {
     @ExceptionHandler(BusinessException.class)
     protected ProblemDetail handleException(BusinessException e) {
         ProblemDetail problemDetail = ProblemDetail.forStatus(e.getHttpStatus());
-        problemDetail.setTitle("Not Found");
+        problemDetail.setTitle(e.getHttpStatus().getReasonPhrase());
         problemDetail.setDetail(e.getMessage());
         problemDetail.setProperty("errorCategory", "Generic");
         problemDetail.setProperty("timestamp", Instant.now());
@@ -52,6 +59,47 @@ public class DefaultExceptionAdvice {
         return new ResponseEntity<>(result, HttpStatus.BAD_REQUEST);
     }
 
+    //일시적 거절 (대기열 포화 등) - 언제 다시 시도할지 Retry-After 로 알려줌
+    @ExceptionHandler(RetryLaterException.class)
+    protected ResponseEntity<ProblemDetail> handleRetryLater(RetryLaterException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(e.getHttpStatus());
+        problemDetail.setTitle(e.getHttpStatus().getReasonPhrase());
+        problemDetail.setDetail(e.getMessage());
+        problemDetail.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(e.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problemDetail);
+    }
+
+    //동시 수정 충돌 (@Version 불일치) - 재조회 후 다시 시도하라는 의미로 409
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class, OptimisticLockException.class})
+    protected ProblemDetail handleOptimisticLock(RuntimeException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problemDetail.setTitle(HttpStatus.CONFLICT.getReasonPhrase());
+        problemDetail.setDetail("다른 요청이 먼저 도서를 수정했습니다. 다시 조회한 뒤 시도해 주세요.");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    //유니크 제약 충돌 - 확인과 insert 사이에 다른 요청이 먼저 커밋한 경우 (재시도를 다 써도 풀리지 않은 detail 동시 생성 포함)
+    //EntityManager.flush() 에서 난 예외는 변환되지 않은 Hibernate 예외 그대로 온다
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    protected ResponseEntity<?> handleDataIntegrityViolation(RuntimeException e) {
+        String detail;
+        if (ConstraintViolations.isUniqueViolationOn(e, "books")) {
+            detail = "이미 사용 중인 ISBN 입니다.";
+        } else if (ConstraintViolations.isUniqueViolationOn(e, "book_details")) {
+            detail = "다른 요청이 먼저 도서 상세를 만들었습니다. 다시 조회한 뒤 시도해 주세요.";
+        } else {
+            return handleException(e);
+        }
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problemDetail.setTitle(HttpStatus.CONFLICT.getReasonPhrase());
+        problemDetail.setDetail(detail);
+        problemDetail.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     protected ResponseEntity<ErrorObject> handleException(RuntimeException e) {
         ErrorObject errorObject = new ErrorObject();
@@ -0,0 +1,52 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import com.rookies4.myspringbootlab.controller.Bulkhead;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    엔드포인트 분류별 동시 실행 제한 (@Bulkhead, BulkheadInterceptor)
+    검색 + 대량 작업 상한의 합(6 + 2 = 8)을 Hikari 기본 풀(10)보다 작게 잡아서
+    둘이 모두 가득 차도 커넥션 2개는 단건 조회/쓰기 몫으로 남는다 (풀을 줄이면 search 도 같이 줄일 것)
+ */
+@Component
+@ConfigurationProperties("app.bulkhead")
+@Getter @Setter
+public class BulkheadProperties {
+    private boolean enabled = true;
+    private Limit pointRead = new Limit(64, 8, 200, Duration.ofMillis(200), Duration.ofMillis(100), 0.9);
+    private Limit search = new Limit(6, 2, 32, Duration.ofMillis(500), Duration.ofMillis(300), 0.9);
+    private Limit write = new Limit(16, 2, 64, Duration.ofMillis(500), Duration.ofMillis(300), 0.9);
+    private Limit bulk = new Limit(2, 2, 4, Duration.ofSeconds(1), null, 0.9);
+
+    public Limit of(Bulkhead.Type type) {
+        return switch (type) {
+            case POINT_READ -> pointRead;
+            case SEARCH -> search;
+            case WRITE -> write;
+            case BULK -> bulk;
+        };
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        // 동시 실행 상한 (시작 값) / 지연이 길어져도 이 아래로는 줄이지 않음
+        private int maxConcurrent;
+        private int minConcurrent;
+        // 자리가 날 때까지 기다릴 수 있는 요청 수 (넘으면 바로 429) 와 최대 대기 시간 (넘으면 503)
+        private int maxQueue;
+        private Duration maxWait;
+        // 이 지연을 넘는 응답이 나오면 상한을 backoff-ratio 배로 줄이고, 안쪽이면 조금씩 늘린다 (비우면 상한 고정)
+        private Duration targetLatency;
+        private double backoffRatio;
+    }
+}
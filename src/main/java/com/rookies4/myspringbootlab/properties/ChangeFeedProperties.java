@@ -0,0 +1,33 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    도서 변경 피드 설정 (BookChangeFeed, GET /api/books/changes)
+ */
+@Component
+@ConfigurationProperties("app.change-feed")
+@Getter @Setter
+public class ChangeFeedProperties {
+    // 커밋 알림을 못 받는 변경(다른 인스턴스, replica 지연)도 이 주기로 확인
+    private Duration pollInterval = Duration.ofSeconds(1);
+    // 한 번에 읽는 변경 수
+    private int batchSize = 500;
+    // 보낼 변경이 없을 때 연결 유지용 SSE 주석을 보내는 간격 (프록시 idle timeout 방지, 끊긴 연결 정리)
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // SSE 연결 하나의 최대 유지 시간 - 끝나면 클라이언트가 Last-Event-ID 로 재연결
+    private Duration sseTimeout = Duration.ofMinutes(10);
+    // 동시 SSE 구독자 상한 (넘으면 503 + Retry-After)
+    private int maxSubscribers = 100;
+    // SSE 전송 스레드 수 (느린 구독자가 다른 구독자를 막지 않도록)
+    private int senderThreads = 4;
+    // 변경 보관 기간. 이보다 오래된 위치에서 재개하면 410 (전체 목록부터 다시)
+    private Duration retention = Duration.ofDays(7);
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,25 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    읽기/쓰기 DataSource 분리 설정 (RoutingDataSourceConfig)
+    replica 접속 정보는 app.datasource.replica.* (Hikari 속성 그대로) 에 둔다.
+ */
+@Component
+@ConfigurationProperties("app.datasource.routing")
+@Getter @Setter
+public class DataSourceRoutingProperties {
+    // true 일 때만 primary / replica 두 풀을 만들고 라우팅한다
+    private boolean enabled;
+    // 이보다 뒤처진 replica 는 쓰지 않고 primary 로 읽는다
+    private Duration maxLag = Duration.ofSeconds(5);
+    // replica 지연 측정 주기
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,28 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    ISBN 존재 여부 Bloom filter 설정 (BookIsbnFilter)
+ */
+@Component
+@ConfigurationProperties("app.isbn-filter")
+@Getter @Setter
+public class IsbnFilterProperties {
+    // false 면 항상 "있을 수도 있음" → 모든 ISBN 조회가 DB 로
+    private boolean enabled = true;
+    // 예상 ISBN 수 (비트 배열 크기 기준). 실제 수가 넘으면 두 배 크기로 다시 만든다
+    private int expectedInsertions = 1_000_000;
+    // 없는 ISBN 을 "있을 수도 있음"으로 잘못 판단할 확률 (그 경우 DB 조회로 확인)
+    private double falsePositiveRate = 0.01;
+    // 이 주기로 book_changes(outbox) 를 읽어 다른 인스턴스가 등록/변경한 ISBN 도 넣는다
+    private Duration syncInterval = Duration.ofSeconds(1);
+    // 이 주기로 전체를 다시 만든다 (outbox 를 거치지 않은 직접 쓰기, 삭제된 ISBN 정리)
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,28 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    여러 권 한 번에 조회 설정 (BookBatchLoader, /api/books/multi-get)
+ */
+@Component
+@ConfigurationProperties("app.multi-get")
+@Getter @Setter
+public class MultiGetProperties {
+    // 요청 하나에 담을 수 있는 id + ISBN 수
+    private int maxKeys = 100;
+    // 첫 키가 들어온 뒤 이만큼 더 모아서 한 번에 조회 (0 이면 바로 조회, 조회 중에 들어온 같은 키만 합쳐짐)
+    private Duration window = Duration.ofMillis(2);
+    // 모인 키가 이만큼이면 window 를 기다리지 않고 조회
+    private int batchSize = 500;
+    // 동시에 DB 조회를 하는 스레드 수
+    private int loaderThreads = 4;
+    // 결과를 기다리는 최대 시간 (넘으면 503 + Retry-After)
+    private Duration timeout = Duration.ofSeconds(5);
+}
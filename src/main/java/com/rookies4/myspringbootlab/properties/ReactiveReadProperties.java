@@ -0,0 +1,29 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+    리액티브 읽기 API 설정 (ReactiveReadConfig) - MVC(Tomcat) 와 별도 포트의 Reactor Netty + R2DBC
+ */
+@Component
+@ConfigurationProperties("app.reactive")
+@Getter @Setter
+public class ReactiveReadProperties {
+    // 켜면 커넥션 풀과 포트를 하나 더 쓰므로 기본은 꺼 둔다
+    private boolean enabled = false;
+    private int port = 8081;
+    // R2DBC URL. 비워 두면 spring.datasource.url(H2 / MariaDB)에서 만든다 (같은 DB 를 본다)
+    //   예) r2dbc:mariadb://replica:3306/books
+    private String url;
+    private String username;
+    private String password;
+    // 처음엔 몇 개만 열고 요청이 몰릴 때 max-pool-size 까지 (JDBC 풀과 합쳐 DB 연결 수가 한 번에 늘지 않도록)
+    private int initialPoolSize = 2;
+    private int maxPoolSize = 20;
+    // 전체 목록 스트리밍 시 한 번에 읽는 행 수 (구독자가 더 요청할 때만 다음 묶음을 읽음)
+    private int streamChunkSize = 500;
+}
@@ -0,0 +1,29 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Hibernate 2차 캐시 리전별 크기 / TTL (ProdConfig 에서 JCache 리전으로 생성)
+      app.jpa.cache.regions.<리전>.maximum-size=10000
+      app.jpa.cache.regions.<리전>.time-to-live=30m   (없으면 만료 없음)
+ */
+@Component
+@ConfigurationProperties("app.jpa.cache")
+@Getter @Setter
+public class SecondLevelCacheProperties {
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter @Setter
+    public static class Region {
+        private long maximumSize = 10_000;
+        private Duration timeToLive;
+    }
+}
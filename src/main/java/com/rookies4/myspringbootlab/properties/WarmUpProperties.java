@@ -0,0 +1,25 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    기동 시 warm-up 설정 (WarmUpRunner) - 끝날 때까지 readiness 는 REFUSING_TRAFFIC
+ */
+@Component
+@ConfigurationProperties("app.warm-up")
+@Getter @Setter
+public class WarmUpProperties {
+    private boolean enabled = true;
+    // 대표 조회/직렬화 묶음을 반복하는 횟수 (JIT 가 자주 쓰는 경로를 컴파일하도록)
+    private int iterations = 100;
+    // 반복 횟수를 다 못 채워도 이 시간이 지나면 끝낸다 (기동 지연 상한)
+    private Duration maxDuration = Duration.ofSeconds(20);
+    // true 면 자기 자신(localhost)에 HTTP 요청도 보내서 Tomcat / DispatcherServlet / 메시지 컨버터까지 데운다
+    private boolean http = true;
+}
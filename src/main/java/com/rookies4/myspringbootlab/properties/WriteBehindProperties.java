@@ -0,0 +1,27 @@
+package com.rookies4.myspringbootlab.properties;
+
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    PATCH /api/books/{id}/detail write-behind 설정 (DetailWriteBehind)
+ */
+@Component
+@ConfigurationProperties("app.write-behind")
+@Getter @Setter
+public class WriteBehindProperties {
+    // true 면 If-Match 없는 detail PATCH 는 대기열에 넣고 202 로 응답
+    private boolean enabled;
+    // 대기 중인 도서 수 상한 (같은 도서는 하나로 합쳐짐) - 넘으면 503 + Retry-After
+    private int capacity = 10_000;
+    // 트랜잭션 하나에 반영하는 도서 수, 대기 도서가 이만큼 쌓이면 주기를 기다리지 않고 반영
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(200);
+    // 처리 결과(tracking id) 조회 가능 기간
+    private Duration statusTtl = Duration.ofMinutes(10);
+}
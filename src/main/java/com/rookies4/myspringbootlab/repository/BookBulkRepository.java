@@ -0,0 +1,19 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/*
+    대량 수정/삭제 대상 조회 - BookRepository 에 붙는 fragment
+    엔티티를 영속성 컨텍스트에 올리지 않고 id 와 (캐시 무효화용) ISBN 만 읽는다
+ */
+public interface BookBulkRepository {
+
+    record IdIsbn(Long id, String isbn) {
+    }
+
+    /** spec 에 맞는 도서의 id / ISBN (id 순) */
+    List<IdIsbn> findIdIsbn(Specification<Book> spec);
+}
@@ -0,0 +1,34 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookBulkRepositoryImpl implements BookBulkRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<IdIsbn> findIdIsbn(Specification<Book> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        Predicate where = spec != null ? spec.toPredicate(root, query, cb) : null;
+        query.multiselect(root.get("id"), root.get("isbn")).orderBy(cb.asc(root.get("id")));
+        if (where != null) query.where(where);
+
+        return entityManager.createQuery(query).getResultStream()
+                .map(tuple -> new IdIsbn(tuple.get(0, Long.class), tuple.get(1, String.class)))
+                .toList();
+    }
+}
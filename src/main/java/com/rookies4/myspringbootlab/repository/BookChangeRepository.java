@@ -0,0 +1,29 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.BookChange;
+import com.rookies4.myspringbootlab.entity.BookChangeSequence;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    // 재개 위치(seq) 다음부터 (PK 범위 검색)
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limit);
+
+    // 카운터 행 (하나뿐) - 다른 인스턴스가 커밋한 변경까지 포함한 현재 위치
+    @Query("select s from BookChangeSequence s")
+    Optional<BookChangeSequence> findSequence();
+
+    @Query("select max(c.seq) from BookChange c where c.occurredAt < :before")
+    Long findLastSeqBefore(Instant before);
+
+    @Modifying
+    @Query("delete from BookChange c where c.seq <= :seq")
+    int deleteThrough(long seq);
+}
@@ -2,11 +2,19 @@ package com.rookies4.myspringbootlab.repository;
 
 import com.rookies4.myspringbootlab.entity.BookDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookDetailRepository extends JpaRepository<BookDetail, Long> {
     Optional<BookDetail> findByBookId(Long bookId);
     List<BookDetail> findByPublisher(String publisher);
+
+    // 대량 삭제: 도서를 지우기 전에 detail 을 한 문장으로
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from BookDetail d where d.book.id in :bookIds")
+    int deleteByBookIdIn(Collection<Long> bookIds);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/*
+    카탈로그 조회의 패싯(출판사/언어/출간 연도별 권수) 집계 - BookRepository 에 붙는 fragment
+ */
+public interface BookFacetRepository {
+
+    enum Facet { PUBLISHER, LANGUAGE, YEAR }
+
+    // value 가 null 이면 값이 없는 도서 (detail 없음 등)
+    record FacetCount(String value, long count) {
+    }
+
+    /** spec 에 맞는 도서를 facet 값별로 세어서 많은 순으로 limit 개 */
+    List<FacetCount> countByFacet(Specification<Book> spec, Facet facet, int limit);
+}
@@ -0,0 +1,52 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/*
+    select <facet>, count(*) from books [left join book_details] where <spec> group by <facet>
+    조건/그룹 컬럼이 모두 복합 인덱스(Book, BookDetail 의 @Index)에 들어 있어서 테이블을 읽지 않는다
+ */
+@RequiredArgsConstructor
+public class BookFacetRepositoryImpl implements BookFacetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<FacetCount> countByFacet(Specification<Book> spec, Facet facet, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        // 조건을 먼저 적용해야 detail 조건이 만든 INNER JOIN 을 그룹 컬럼이 재사용한다 (없으면 LEFT JOIN → null 값 버킷)
+        Predicate where = spec != null ? spec.toPredicate(root, query, cb) : null;
+        Expression<?> value = switch (facet) {
+            case PUBLISHER -> BookSpecifications.detailJoin(root, JoinType.LEFT).get("publisher");
+            case LANGUAGE -> BookSpecifications.detailJoin(root, JoinType.LEFT).get("language");
+            case YEAR -> cb.function("year", Integer.class, root.get("publishDate"));
+        };
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(value, count).groupBy(value).orderBy(cb.desc(count), cb.asc(value));
+        if (where != null) query.where(where);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> new FacetCount(
+                        tuple.get(0) != null ? String.valueOf(tuple.get(0)) : null,
+                        tuple.get(1, Long.class)))
+                .toList();
+    }
+}
@@ -1,14 +1,140 @@
 package com.rookies4.myspringbootlab.repository;
 
 import com.rookies4.myspringbootlab.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+/*
+    목록/검색 메서드는 bookDetail 을 함께 fetch join 한다.
+    mappedBy 쪽 1:1 은 프록시를 만들 수 없어서 그대로 두면 행마다 SELECT 가 한 번씩 더 나간다(N+1).
+ */
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookFacetRepository, BookBulkRepository {
     boolean existsByIsbn(String isbn);
+
+    // bulk import: 배치 전체의 ISBN 중복을 한 번에 확인
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
+    // 2차 캐시(ProdConfig)가 켜져 있으면 쿼리 캐시 → book / book-detail 리전에서 바로 조립
+    // (mappedBy 1:1 은 엔티티 캐시만으로는 detail 조회 SQL 이 한 번 더 나가므로 쿼리 캐시를 같이 쓴다)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = "bookDetail")
     Optional<Book> findByIsbn(String isbn);
+
+    @EntityGraph(attributePaths = "bookDetail")
     List<Book> findByAuthor(String author);
+
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByAuthorContainingIgnoreCase(String author);
+
+    // 정규화 저자 키(idx_books_author_key) 기준 정확/접두어 검색
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByAuthorKeyOrderByIdAsc(String authorKey, Pageable pageable);
+
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByAuthorKeyStartingWithOrderByAuthorKeyAscIdAsc(String prefix, Pageable pageable);
+
+    // 자동완성: 인덱스(author_key, author)만 읽는다. prefix 는 LIKE 이스케이프 후 '%' 를 붙여서 전달
+    @Query("select b.author from Book b where b.authorKey like :pattern escape '\\' "
+            + "group by b.authorKey, b.author order by b.authorKey")
+    List<String> findAuthorSuggestions(String pattern, Limit limit);
+
+    @EntityGraph(attributePaths = "bookDetail")
     List<Book> findByTitleContainingIgnoreCase(String title);
+
+    // 카탈로그 조회 (BookSpecifications 조합, count 쿼리에는 fetch 가 붙지 않음)
+    @Override
+    @EntityGraph(attributePaths = "bookDetail")
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByIdIn(Collection<Long> ids);
+
+    // 여러 권 조회(BookBatchLoader): ISBN unique 인덱스로 IN 조회
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select b from Book b left join fetch b.bookDetail where b.id = :id")
+    Optional<Book> findBookDetailByBookId(Long id);
+
+    // 키셋 페이지네이션: 마지막으로 받은 id 다음부터 seek
+    @EntityGraph(attributePaths = "bookDetail")
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
+
+    // 목록 페이지의 ETag 계산용: 같은 범위의 id 와 버전/수정시각만 읽는다
+    @Query("select b.id as id, b.version as version, d.version as detailVersion, "
+            + "b.updatedAt as updatedAt, d.updatedAt as detailUpdatedAt "
+            + "from Book b left join b.bookDetail d where b.id > :cursor order by b.id")
+    List<VersionView> findVersionsAfter(Long cursor, Limit limit);
+
+    /*
+        대량 변경: 엔티티를 읽지 않고 UPDATE / DELETE 한 문장으로 (ids 는 호출하는 쪽에서 IN 목록 크기만큼 나눠서)
+        JPQL 대량 변경은 Hibernate 가 해당 엔티티의 2차 캐시 리전과 쿼리 캐시를 비운다.
+        versioned: @Version 도 1 올려서 ETag / If-Match / JSON 캐시가 바뀐 것을 알 수 있게 한다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Book b set b.price = :price, b.updatedAt = :now where b.id in :ids")
+    int setPrice(Collection<Long> ids, int price, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Book b set b.price = greatest(b.price + :delta, 0), b.updatedAt = :now where b.id in :ids")
+    int addPrice(Collection<Long> ids, int delta, Instant now);
+
+    // 비율 변경 (factor = 1 + percent / 100, 원 단위 반올림)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Book b set b.price = greatest(cast(round(cast(b.price as Double) * :factor, 0) as Integer), 0), "
+            + "b.updatedAt = :now where b.id in :ids")
+    int scalePrice(Collection<Long> ids, double factor, Instant now);
+
+    // book_details 를 먼저 지워야 FK(book_details.book_id) 에 걸리지 않는다 (BookDetailRepository.deleteByBookIdIn)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    // 전체 스트리밍: 트랜잭션 안에서만 사용, 사용 후 반드시 close
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Book b left join fetch b.bookDetail order by b.id")
+    Stream<Book> streamAllBy();
+
+    // 제목 인덱스(BookTitleIndex) 구축용: 엔티티 대신 id/title 만 읽는다
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id as id, b.title as title from Book b")
+    Stream<IdTitle> streamIdTitleBy();
+
+    // ISBN Bloom filter(BookIsbnFilter) 구축용: unique 인덱스만 읽는다
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.isbn from Book b")
+    Stream<String> streamIsbnBy();
+
+    interface VersionView {
+        Long getId();
+        Long getVersion();
+        Long getDetailVersion();
+        Instant getUpdatedAt();
+        Instant getDetailUpdatedAt();
+    }
+
+    interface IdTitle {
+        Long getId();
+        String getTitle();
+    }
 }
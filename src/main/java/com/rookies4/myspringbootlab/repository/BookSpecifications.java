@@ -0,0 +1,75 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.entity.BookDetail;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/*
+    카탈로그 조회(/api/books/query) 조건 조각. 값이 null 이면 조건 없음(null 반환 → Specification 조합에서 무시)
+    detail 조건은 INNER JOIN 하나를 같이 쓴다 (detailJoin) - H2 가 book_details 인덱스부터 읽을 수 있도록
+    (LEFT JOIN + WHERE 는 books 전체를 훑음)
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    // 정규화 저자 키 일치 (idx_books_author_key)
+    public static Specification<Book> authorKeyIs(String authorKey) {
+        if (authorKey == null || authorKey.isEmpty()) return null;
+        return (root, query, cb) -> cb.equal(root.get("authorKey"), authorKey);
+    }
+
+    public static Specification<Book> titleContains(String title) {
+        if (title == null || title.isBlank()) return null;
+        String pattern = "%" + title.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern, '\\');
+    }
+
+    public static Specification<Book> priceBetween(Integer min, Integer max) {
+        if (min == null && max == null) return null;
+        return (root, query, cb) -> min == null ? cb.le(root.get("price"), max)
+                : max == null ? cb.ge(root.get("price"), min)
+                : cb.between(root.get("price"), min, max);
+    }
+
+    public static Specification<Book> publishedBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+        return (root, query, cb) -> from == null ? cb.lessThanOrEqualTo(root.get("publishDate"), to)
+                : to == null ? cb.greaterThanOrEqualTo(root.get("publishDate"), from)
+                : cb.between(root.get("publishDate"), from, to);
+    }
+
+    public static Specification<Book> publisherIs(String publisher) {
+        if (publisher == null || publisher.isEmpty()) return null;
+        return (root, query, cb) -> cb.equal(detailJoin(root, JoinType.INNER).get("publisher"), publisher);
+    }
+
+    public static Specification<Book> languageIs(String language) {
+        if (language == null || language.isEmpty()) return null;
+        return (root, query, cb) -> cb.equal(detailJoin(root, JoinType.INNER).get("language"), language);
+    }
+
+    /** root 에 이미 있는 bookDetail 조인을 재사용, 없으면 joinType 으로 추가 (조건/집계가 조인을 중복으로 만들지 않도록) */
+    @SuppressWarnings("unchecked")
+    public static Join<Book, BookDetail> detailJoin(From<?, Book> root, JoinType joinType) {
+        for (Join<Book, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("bookDetail")) {
+                return (Join<Book, BookDetail>) join;
+            }
+        }
+        return root.join("bookDetail", joinType);
+    }
+}
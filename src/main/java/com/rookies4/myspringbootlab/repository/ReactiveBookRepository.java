@@ -0,0 +1,123 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+    리액티브 읽기 전용 조회 (R2DBC, ReactiveReadConfig 에서만 생성)
+    JPA 와 같은 books / book_details 테이블을 SQL 로 직접 읽어 BookDTO.Response 로 만든다 (응답 모양 동일)
+    쓰기는 하지 않는다 - 변경은 계속 BookService(JPA) 로
+ */
+public class ReactiveBookRepository implements DisposableBean {
+
+    private static final String SELECT = "select b.id, b.title, b.author, b.isbn, b.price, b.publish_date, "
+            + "b.version, b.updated_at, d.id as detail_id, d.description, d.language, d.page_count, d.publisher, "
+            + "d.cover_image_url, d.edition, d.version as detail_version, d.updated_at as detail_updated_at "
+            + "from books b left join book_details d on d.book_id = b.id ";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    public Mono<BookDTO.Response> findByIsbn(String isbn) {
+        return databaseClient.sql(SELECT + "where b.isbn = :isbn")
+                .bind("isbn", isbn)
+                .map(ReactiveBookRepository::toResponse)
+                .one();
+    }
+
+    /** id 가 cursor 보다 큰 도서 limit 건 (id 순, 키셋 페이지네이션) */
+    public Flux<BookDTO.Response> findPage(long cursor, int limit) {
+        return databaseClient.sql(SELECT + "where b.id > :cursor order by b.id limit :limit")
+                .bind("cursor", cursor)
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * 전체 도서를 id 순으로 chunkSize 씩 키셋 페이지로 읽어 이어 붙인다
+     * 다음 페이지 쿼리는 앞 페이지를 구독자가 다 소비하고 더 요청할 때만 실행 (느린 클라이언트면 DB 도 쉬어감)
+     */
+    public Flux<BookDTO.Response> streamAll(int chunkSize) {
+        return findPage(0L, chunkSize).collectList()
+                .expand(page -> page.size() < chunkSize ? Mono.empty()
+                        : findPage(page.get(page.size() - 1).getId(), chunkSize).collectList())
+                .flatMapIterable(Function.identity());
+    }
+
+    /** id 목록으로 조회 (순서 보장 없음, 없는 id 는 빠짐) */
+    public Flux<BookDTO.Response> findByIdIn(Collection<Long> ids) {
+        return databaseClient.sql(SELECT + "where b.id in (:ids)")
+                .bind("ids", List.copyOf(ids))
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    /** 정규화 저자 키 정확/접두어 일치 (idx_books_author_key). prefix 면 pattern 은 LIKE 이스케이프 + '%' */
+    public Flux<BookDTO.Response> findByAuthorKey(String keyOrPattern, boolean prefix, int offset, int limit) {
+        // ESCAPE 를 적지 않는다: H2 / MariaDB 모두 기본 이스케이프가 '\' 이고, MariaDB 에서 '\' 리터럴은 문자열이 닫히지 않음
+        String where = prefix
+                ? "where b.author_key like :key order by b.author_key, b.id "
+                : "where b.author_key = :key order by b.id ";
+        return databaseClient.sql(SELECT + where + "limit :limit offset :offset")
+                .bind("key", keyOrPattern)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    // BookDTO.Response.fromEntity 와 같은 규칙 (lastModified = book / detail 중 나중 시각)
+    private static BookDTO.Response toResponse(Readable row) {
+        Long detailId = row.get("detail_id", Long.class);
+        BookDTO.BookDetailResponse detail = detailId == null ? null : BookDTO.BookDetailResponse.builder()
+                .id(detailId)
+                .description(row.get("description", String.class))
+                .language(row.get("language", String.class))
+                .pageCount(row.get("page_count", Integer.class))
+                .publisher(row.get("publisher", String.class))
+                .coverImageUrl(row.get("cover_image_url", String.class))
+                .edition(row.get("edition", String.class))
+                .version(row.get("detail_version", Long.class))
+                .build();
+
+        Instant lastModified = row.get("updated_at", Instant.class);
+        Instant detailUpdatedAt = detailId == null ? null : row.get("detail_updated_at", Instant.class);
+        if (detailUpdatedAt != null && (lastModified == null || detailUpdatedAt.isAfter(lastModified))) {
+            lastModified = detailUpdatedAt;
+        }
+
+        return BookDTO.Response.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .author(row.get("author", String.class))
+                .isbn(row.get("isbn", String.class))
+                .price(row.get("price", Integer.class))
+                .publishDate(row.get("publish_date", LocalDate.class))
+                .version(row.get("version", Long.class))
+                .lastModified(lastModified)
+                .detail(detail)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
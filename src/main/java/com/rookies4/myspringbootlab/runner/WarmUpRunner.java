@@ -0,0 +1,146 @@
+package com.rookies4.myspringbootlab.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.properties.WarmUpProperties;
+import com.rookies4.myspringbootlab.service.BookService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    기동 warm-up: 커넥션 풀 채우기 → 대표 BookService 조회 반복 → DTO 직렬화/역직렬화 → (선택) 자기 자신에 HTTP 요청
+    ApplicationRunner 는 ApplicationReadyEvent 전에 실행되므로, 끝날 때까지 readiness 프로브
+    (/actuator/health/readiness) 는 OUT_OF_SERVICE 이고 로드밸런서가 트래픽을 보내지 않는다.
+    조회 전용 (쓰기 없음). 실패해도 기동은 계속한다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String SAMPLE_REQUEST = """
+            {"title":"Warm Up","author":"Kim","isbn":"9780000000000","price":10000,"publishDate":"2020-01-01",
+             "detailRequest":{"description":"warm-up","language":"ko","pageCount":100,"publisher":"Hanbit"}}""";
+    private static final String SAMPLE_PATCH = """
+            {"price":12000,"bookDetail":{"edition":"2nd"}}""";
+
+    private final WarmUpProperties properties;
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final List<HikariDataSource> pools;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) return;
+
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        pools.forEach(this::primePool);
+
+        RestClient client = properties.isHttp() ? localClient() : null;
+        int iterations = 0;
+        try {
+            while (iterations < properties.getIterations() && System.nanoTime() < deadline) {
+                exerciseQueries();
+                exerciseJson();
+                if (client != null) exerciseHttp(client);
+                iterations++;
+            }
+        } catch (Exception e) {
+            log.warn("warm-up 중단 ({}회 완료): {}", iterations, e.toString());
+        }
+        log.info("warm-up 완료: {}회, {}ms", iterations, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // minimum-idle 만큼 동시에 빌려서 풀을 미리 채운다 (첫 요청들이 커넥션 생성을 기다리지 않도록)
+    private void primePool(HikariDataSource pool) {
+        int size = Math.max(pool.getMinimumIdle(), 1);
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = pool.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("커넥션 풀 warm-up 실패 ({}): {}", pool.getPoolName(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // 반납 실패는 무시 (풀이 정리)
+                }
+            }
+        }
+    }
+
+    // 목록 / ETag / ISBN / 저자 / 제목 / 카탈로그 조회 경로 (Hibernate 쿼리 플랜 캐시 + JIT)
+    private void exerciseQueries() throws Exception {
+        BookDTO.CursorPage page = bookService.getPage(null, BookService.DEFAULT_PAGE_SIZE);
+        bookService.getPageVersions(null, BookService.DEFAULT_PAGE_SIZE);
+        if (!page.getContent().isEmpty()) {
+            BookDTO.Response first = page.getContent().get(0);
+            bookService.getByIsbn(first.getIsbn());
+            bookService.searchByAuthor(first.getAuthor(), false, 0, BookService.DEFAULT_PAGE_SIZE);
+            bookService.getByIds(page.getContent().stream().map(BookDTO.Response::getId).toList());
+        }
+        bookService.searchByAuthor("warm", true, 0, BookService.DEFAULT_PAGE_SIZE);
+        bookService.suggestAuthors("wa", 10);
+        bookService.searchByTitle("warm", 0, BookService.DEFAULT_PAGE_SIZE);
+
+        BookDTO.QueryCondition condition = new BookDTO.QueryCondition();
+        condition.setMinPrice(10000);
+        condition.setMaxPrice(30000);
+        condition.setLanguage("ko");
+        bookService.query(condition, 0, BookService.DEFAULT_PAGE_SIZE, true, BookService.DEFAULT_FACET_SIZE);
+
+        objectMapper.writeValueAsBytes(page);
+    }
+
+    // DB 가 비어 있어도 DTO 직렬화/역직렬화 경로는 데운다
+    private void exerciseJson() throws Exception {
+        BookDTO.Request request = objectMapper.readValue(SAMPLE_REQUEST, BookDTO.Request.class);
+        BookDTO.PatchRequest patch = objectMapper.readValue(SAMPLE_PATCH, BookDTO.PatchRequest.class);
+        BookDTO.Response response = BookDTO.Response.builder()
+                .id(0L).title(request.getTitle()).author(request.getAuthor()).isbn(request.getIsbn())
+                .price(patch.getPrice()).publishDate(LocalDate.of(2020, 1, 1)).version(0L)
+                .detail(BookDTO.BookDetailResponse.builder().language("ko").pageCount(100).version(0L).build())
+                .build();
+        objectMapper.writeValueAsBytes(response);
+        objectMapper.writeValueAsBytes(List.of(response, response));
+    }
+
+    // 웹 서버가 있을 때만 (WebEnvironment.NONE 테스트 등은 null)
+    private RestClient localClient() {
+        if (!(applicationContext instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            return null;
+        }
+        return RestClient.create("http://localhost:" + web.getWebServer().getPort());
+    }
+
+    // 컨트롤러 → JSON 캐시 / ETag → 메시지 컨버터 → Tomcat 까지 (서비스 호출만으로는 안 데워지는 부분)
+    private void exerciseHttp(RestClient client) {
+        client.get().uri("/api/books?size=20").retrieve().toBodilessEntity();
+        client.get().uri("/api/books/query?minPrice=10000&maxPrice=30000&language=ko").retrieve().toBodilessEntity();
+        client.get().uri("/api/books/search/title?title=warm").retrieve().toBodilessEntity();
+        client.get().uri("/api/books/search/author?author=warm").retrieve().toBodilessEntity();
+    }
+}
@@ -0,0 +1,298 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.config.StatementCountInspector;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.MultiGetProperties;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+    여러 권 한 번에 조회 (GET/POST /api/books/multi-get) - id / ISBN 을 IN 쿼리로 (detail 같이 fetch)
+    - ISBN 은 BookIsbnCache → BookIsbnFilter 순서로 먼저 거르고, 남은 키만 DB 로
+    - 요청들 사이에서 키를 합친다: window 동안 들어온 키를 모아 한 번에 조회하고,
+      이미 조회 중(또는 대기 중)인 키를 다시 요청하면 새로 조회하지 않고 그 결과를 같이 기다린다
+    - 조회는 loader 스레드에서 (요청 스레드는 트랜잭션/커넥션 없이 결과만 기다림)
+ */
+@Slf4j
+@Component
+public class BookBatchLoader implements SmartLifecycle {
+
+    private static final int IN_SIZE = 1000;   // IN 목록 하나의 크기
+
+    private final BookRepository bookRepository;
+    private final BookIsbnCache bookIsbnCache;
+    private final BookIsbnFilter bookIsbnFilter;
+    private final MultiGetProperties properties;
+    private final TransactionTemplate readOnlyTx;
+    private final Counter coalesced;
+    private final DistributionSummary batchSizes;
+
+    // 키(Long id / String ISBN) → 결과 (없으면 null). 조회가 끝나면 빠진다
+    private final Object lock = new Object();
+    private final Map<Object, CompletableFuture<BookDTO.Response>> inFlight = new HashMap<>();
+    private List<Object> pending = new ArrayList<>();
+    private boolean flushScheduled;
+
+    private ScheduledExecutorService timer;
+    private ExecutorService loaders;
+    private volatile boolean running;
+
+    public BookBatchLoader(BookRepository bookRepository, BookIsbnCache bookIsbnCache, BookIsbnFilter bookIsbnFilter,
+                           MultiGetProperties properties, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.bookIsbnCache = bookIsbnCache;
+        this.bookIsbnFilter = bookIsbnFilter;
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.coalesced = Counter.builder("book.multi_get.coalesced")
+                .description("이미 조회 중인 키에 합쳐져 DB 를 보지 않은 키 수")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("book.multi_get.batch_size")
+                .description("DB 조회 한 번에 담긴 키 수")
+                .register(meterRegistry);
+    }
+
+    /** id / ISBN 목록 조회 - 결과는 요청 순서(id 다음 ISBN, 같은 도서는 한 번), 없는 키는 missing 으로 */
+    public BookDTO.MultiGetResponse get(List<Long> ids, List<String> isbns) {
+        List<Long> distinctIds = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> distinctIsbns = isbns == null ? List.of()
+                : isbns.stream().filter(isbn -> isbn != null && !isbn.isBlank()).distinct().toList();
+        int keyCount = distinctIds.size() + distinctIsbns.size();
+        if (keyCount == 0) {
+            throw new BusinessException("ids 또는 isbns 중 하나는 있어야 합니다.", HttpStatus.BAD_REQUEST);
+        }
+        if (keyCount > properties.getMaxKeys()) {
+            throw new BusinessException("한 번에 조회할 수 있는 도서는 " + properties.getMaxKeys() + "권까지입니다.",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        Map<Object, BookDTO.Response> found = new HashMap<>();
+        List<Object> keys = new ArrayList<>(distinctIds);
+        for (String isbn : distinctIsbns) {
+            BookDTO.Response cached = bookIsbnCache.get(isbn);
+            if (cached != null) {
+                found.put(isbn, cached);
+            } else if (bookIsbnFilter.mightContain(isbn)) {
+                keys.add(isbn);
+            }
+        }
+        if (!keys.isEmpty()) {
+            StatementCountInspector.exclude();   // SQL 은 로더 스레드에서 나감
+            load(keys).forEach((key, book) -> {
+                if (book != null) found.put(key, book);
+            });
+        }
+
+        List<BookDTO.Response> books = new ArrayList<>(keyCount);
+        Set<Long> added = new HashSet<>();
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingIsbns = new ArrayList<>();
+        for (Long id : distinctIds) {
+            BookDTO.Response book = found.get(id);
+            if (book == null) missingIds.add(id);
+            else if (added.add(book.getId())) books.add(book);
+        }
+        for (String isbn : distinctIsbns) {
+            BookDTO.Response book = found.get(isbn);
+            if (book == null) missingIsbns.add(isbn);
+            else if (added.add(book.getId())) books.add(book);
+        }
+        return BookDTO.MultiGetResponse.builder()
+                .books(books)
+                .missingIds(missingIds)
+                .missingIsbns(missingIsbns)
+                .build();
+    }
+
+    // 키마다 조회 중인 결과에 합류하거나 새로 대기열에 넣고, 전부 끝날 때까지 기다린다
+    private Map<Object, BookDTO.Response> load(List<Object> keys) {
+        Map<Object, CompletableFuture<BookDTO.Response>> futures = new LinkedHashMap<>();
+        List<Object> batch = null;
+        boolean schedule = false;
+        synchronized (lock) {
+            if (!running) {
+                throw new RetryLaterException("서버가 종료 중입니다.", HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1));
+            }
+            for (Object key : keys) {
+                CompletableFuture<BookDTO.Response> future = inFlight.get(key);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    inFlight.put(key, future);
+                    pending.add(key);
+                } else {
+                    coalesced.increment();
+                }
+                futures.put(key, future);
+            }
+            if (pending.size() >= properties.getBatchSize() || properties.getWindow().isZero()) {
+                batch = takePending();
+            } else if (!pending.isEmpty() && !flushScheduled) {
+                flushScheduled = true;
+                schedule = true;
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        } else if (schedule) {
+            try {
+                timer.schedule(this::flush, properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                flush();   // 종료 중 - 기다리지 않고 바로
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RetryLaterException("도서 조회가 지연되고 있습니다. 잠시 후 다시 시도해 주세요.",
+                    HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+
+        Map<Object, BookDTO.Response> result = new HashMap<>();
+        futures.forEach((key, future) -> result.put(key, future.join()));
+        return result;
+    }
+
+    private List<Object> takePending() {
+        List<Object> batch = pending;
+        pending = new ArrayList<>();
+        flushScheduled = false;
+        return batch;
+    }
+
+    private void flush() {
+        List<Object> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) dispatch(batch);
+    }
+
+    private void dispatch(List<Object> batch) {
+        try {
+            loaders.execute(() -> fetch(batch));
+        } catch (RejectedExecutionException e) {
+            complete(batch, Map.of(), new RetryLaterException("서버가 종료 중입니다.",
+                    HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1)));
+        }
+    }
+
+    // 한 트랜잭션에서 id 는 findByIdIn, ISBN 은 findByIsbnIn (IN_SIZE 단위)
+    private void fetch(List<Object> batch) {
+        batchSizes.record(batch.size());
+        List<Long> ids = new ArrayList<>();
+        List<String> isbns = new ArrayList<>();
+        for (Object key : batch) {
+            if (key instanceof Long id) ids.add(id);
+            else isbns.add((String) key);
+        }
+        Map<Object, BookDTO.Response> found = new HashMap<>();
+        // 캐시에는 조회를 시작한 시점 기준으로 넣는다 (합류한 요청마다가 아니라 실제 DB 를 읽은 이 배치 기준)
+        long readToken = bookIsbnCache.readToken();
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                for (int from = 0; from < ids.size(); from += IN_SIZE) {
+                    for (Book book : bookRepository.findByIdIn(ids.subList(from, Math.min(from + IN_SIZE, ids.size())))) {
+                        found.put(book.getId(), BookDTO.Response.fromEntity(book));
+                    }
+                }
+                for (int from = 0; from < isbns.size(); from += IN_SIZE) {
+                    for (Book book : bookRepository.findByIsbnIn(isbns.subList(from, Math.min(from + IN_SIZE, isbns.size())))) {
+                        found.put(book.getIsbn(), BookDTO.Response.fromEntity(book));
+                    }
+                }
+            });
+            for (String isbn : isbns) {
+                BookDTO.Response book = found.get(isbn);
+                if (book != null) bookIsbnCache.putIfNotInvalidated(book, readToken);
+            }
+            complete(batch, found, null);
+        } catch (RuntimeException e) {
+            log.warn("도서 일괄 조회 실패({}건): {}", batch.size(), e.getMessage());
+            complete(batch, found, e);
+        }
+    }
+
+    // 대기 목록에서 먼저 빼고 결과를 알린다 (이후 들어오는 같은 키는 새로 조회)
+    private void complete(List<Object> batch, Map<Object, BookDTO.Response> found, RuntimeException failure) {
+        List<CompletableFuture<BookDTO.Response>> futures = new ArrayList<>(batch.size());
+        synchronized (lock) {
+            for (Object key : batch) {
+                futures.add(inFlight.remove(key));
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (failure != null) futures.get(i).completeExceptionally(failure);
+            else futures.get(i).complete(found.get(batch.get(i)));
+        }
+    }
+
+    @Override
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-batch-loader-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loaders = Executors.newFixedThreadPool(properties.getLoaderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "book-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        synchronized (lock) {
+            running = true;
+        }
+    }
+
+    // 웹 서버(graceful shutdown 포함)가 멈춘 다음에 멈춘다 - 대기 중인 키는 바로 조회해서 끝낸다
+    @Override
+    public void stop() {
+        List<Object> batch;
+        synchronized (lock) {
+            running = false;
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) dispatch(batch);
+        timer.shutdownNow();
+        loaders.shutdown();
+        try {
+            loaders.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
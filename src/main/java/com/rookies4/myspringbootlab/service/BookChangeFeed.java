@@ -0,0 +1,295 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.BookChangeSequence;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.ChangeFeedProperties;
+import com.rookies4.myspringbootlab.repository.BookChangeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/*
+    도서 변경 피드 (GET /api/books/changes) - book_changes(outbox, BookChangeOutbox) 를 seq 순서로 읽어서 내보낸다
+    - NDJSON : after 다음부터 지금까지를 보내고 끝 (배치 소비자)
+    - SSE    : after(또는 Last-Event-ID) 다음부터 보내고 연결을 유지하며 새 변경을 계속 push
+               커밋 알림(같은 인스턴스)이 오면 바로, 아니면 poll-interval 마다 구독자별로 밀린 만큼 읽어 보낸다
+    - 보관 기간이 지난 변경은 주기적으로 지우고, 그보다 앞에서 재개하려 하면 410
+ */
+@Slf4j
+@Component
+public class BookChangeFeed implements SmartInitializingSingleton, SmartLifecycle {
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        volatile long cursor;
+        volatile long lastSentAt = System.nanoTime();
+        final AtomicBoolean dirty = new AtomicBoolean(true);
+        final AtomicBoolean busy = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    private final BookChangeRepository bookChangeRepository;
+    private final EntityManager entityManager;
+    private final ChangeFeedProperties properties;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senders;
+    private volatile boolean running;
+
+    public BookChangeFeed(BookChangeRepository bookChangeRepository, EntityManager entityManager,
+                          ChangeFeedProperties properties, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        Gauge.builder("book.change_feed.subscribers", subscribers, Set::size)
+                .description("SSE 변경 피드 구독자 수")
+                .register(meterRegistry);
+    }
+
+    // 카운터 행이 없으면 만든다 (웹 서버가 뜨기 전, 첫 쓰기보다 먼저)
+    @Override
+    public void afterSingletonsInstantiated() {
+        tx.executeWithoutResult(status -> {
+            if (entityManager.find(BookChangeSequence.class, BookChangeSequence.ID) == null) {
+                Long last = entityManager.createQuery("select max(c.seq) from BookChange c", Long.class)
+                        .getSingleResult();
+                entityManager.persist(new BookChangeSequence(BookChangeSequence.ID, last != null ? last : 0L, 0L));
+            }
+        });
+    }
+
+    public BookDTO.ChangeFeedHead head() {
+        return readOnlyTx.execute(status -> {
+            BookChangeSequence sequence = entityManager.find(BookChangeSequence.class, BookChangeSequence.ID);
+            return new BookDTO.ChangeFeedHead(sequence.getLastSeq(), sequence.getPurgedThrough());
+        });
+    }
+
+    /**
+     * after 다음 변경부터 호출 시점의 head 까지 consumer 로 (batch-size 씩 끊어 읽음, 메모리 일정)
+     * 보내는 동안 새로 커밋된 변경은 다음 요청에서 (계속 쓰기가 들어와도 응답이 끝나도록)
+     */
+    public void stream(long after, Consumer<BookDTO.ChangeEvent> consumer) {
+        long until = head().getSeq();
+        long cursor = after;
+        while (cursor < until) {
+            List<BookDTO.ChangeEvent> changes = read(cursor, properties.getBatchSize());
+            if (changes.isEmpty()) break;
+            for (BookDTO.ChangeEvent change : changes) {
+                if (change.getSeq() > until) return;
+                consumer.accept(change);
+            }
+            cursor = changes.get(changes.size() - 1).getSeq();
+        }
+    }
+
+    /** SSE 구독. after 가 null 이면 지금 이후의 변경만 */
+    public SseEmitter subscribe(Long after) {
+        long cursor = after != null ? after : head().getSeq();
+        checkResumable(cursor);
+        if (!running) {
+            throw new RetryLaterException("서버가 종료 중입니다.", HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(5));
+        }
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new RetryLaterException("변경 피드 구독자가 너무 많습니다. 잠시 후 다시 시도해 주세요.",
+                    HttpStatus.SERVICE_UNAVAILABLE, properties.getPollInterval().multipliedBy(5));
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // 같은 인스턴스의 커밋은 poll 주기를 기다리지 않고 바로 (대량 변경의 이벤트 여러 건은 한 번으로 합쳐짐)
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (running && !subscribers.isEmpty() && wakeRequested.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+            }
+        }
+    }
+
+    /** after 다음부터 빠짐없이 이어 받을 수 있는지 (보관 기간이 지나 지운 구간이면 410) */
+    public void checkResumable(long after) {
+        long purgedThrough = head().getPurgedThrough();
+        if (after < purgedThrough) {
+            throw new BusinessException("seq " + after + " 이후 변경 중 일부가 보관 기간이 지나 삭제되었습니다. "
+                    + "전체 목록을 다시 읽고 /api/books/changes/head 부터 구독해 주세요.", HttpStatus.GONE);
+        }
+    }
+
+    private List<BookDTO.ChangeEvent> read(long after, int limit) {
+        return readOnlyTx.execute(status -> bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(after, Limit.of(limit))
+                .stream()
+                .map(BookDTO.ChangeEvent::fromEntity)
+                .toList());
+    }
+
+    private void dispatch() {
+        wakeRequested.set(false);
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    // 구독자 하나는 동시에 한 스레드만 보낸다. 보내는 중에 새 변경이 오면 dirty 로 남겨 끝난 뒤 한 번 더
+    // (느린 구독자는 전송 스레드 하나만 붙잡고 dispatcher 는 막지 않는다)
+    private void schedule(Subscriber subscriber) {
+        subscriber.dirty.set(true);
+        if (subscriber.busy.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.busy.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscriber.dirty.getAndSet(false) && subscribers.contains(subscriber)) {
+                List<BookDTO.ChangeEvent> changes;
+                while (!(changes = read(subscriber.cursor, properties.getBatchSize())).isEmpty()) {
+                    for (BookDTO.ChangeEvent change : changes) {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.getSeq()))
+                                .name(change.getType().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        subscriber.cursor = change.getSeq();
+                    }
+                    subscriber.lastSentAt = System.nanoTime();
+                }
+            }
+            if (System.nanoTime() - subscriber.lastSentAt >= properties.getHeartbeat().toNanos()) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                subscriber.lastSentAt = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 끊었거나 이미 끝난 emitter
+            close(subscriber, e);
+        } catch (RuntimeException e) {
+            log.warn("변경 피드 전송 실패 (seq {} 이후): {}", subscriber.cursor, e.getMessage());
+            close(subscriber, e);
+        } finally {
+            subscriber.busy.set(false);
+        }
+        if (subscriber.dirty.get() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber, Exception e) {
+        subscribers.remove(subscriber);
+        try {
+            subscriber.emitter.completeWithError(e);
+        } catch (RuntimeException ignored) {
+            // 이미 끝난 emitter
+        }
+    }
+
+    /** 보관 기간이 지난 변경 삭제 (purgedThrough 를 올려서 그 앞에서 재개하는 구독은 410) */
+    public int purge() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer deleted = tx.execute(status -> {
+            Long last = bookChangeRepository.findLastSeqBefore(before);
+            if (last == null) return 0;
+            BookChangeSequence sequence = entityManager.find(BookChangeSequence.class, BookChangeSequence.ID,
+                    LockModeType.PESSIMISTIC_WRITE);
+            sequence.setPurgedThrough(Math.max(sequence.getPurgedThrough(), last));
+            return bookChangeRepository.deleteThrough(last);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("변경 피드 정리: {}건 삭제 ({} 이전)", deleted, before);
+        }
+        return deleted != null ? deleted : 0;
+    }
+
+    // 스케줄 작업은 예외가 나면 다음 실행이 취소되므로 여기서 막는다
+    private void quietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("변경 피드 작업 실패", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "book-change-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long poll = properties.getPollInterval().toMillis();
+        long purge = properties.getPurgeInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(() -> quietly(this::dispatch), poll, poll, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(() -> quietly(this::purge), purge, purge, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    // 열린 SSE 연결을 먼저 끝내야 웹 서버 종료가 이 연결들을 기다리지 않는다 (클라이언트는 Last-Event-ID 로 재연결)
+    @Override
+    public void stop() {
+        running = false;
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.entity.BookChange;
+import com.rookies4.myspringbootlab.entity.BookChangeSequence;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/*
+    BookService 쓰기가 발행한 BookChangedEvent 를 같은 트랜잭션 안에서 book_changes 에 기록 (transactional outbox)
+    → 롤백된 변경은 피드에 나가지 않고, 커밋된 변경은 빠짐없이 남는다
+    seq 는 커밋 순서여야 해서(구독자가 작은 seq 를 건너뛰지 않도록) 카운터 행 잠금으로 배정한다.
+    잠그기 전에 도서 변경을 flush 해서 도서 행 잠금 → 카운터 잠금 순서를 지킨다
+    (순서가 엇갈리면 카운터를 쥔 트랜잭션이 도서 행을, 도서 행을 쥔 트랜잭션이 카운터를 기다리는 교착),
+    카운터는 outbox insert 와 커밋 동안만 쥔다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookChangeOutbox {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // 커밋 직전(아직 트랜잭션 안)에 실행. insert 는 커밋 시 flush 에서 배치로 나간다
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(BookChangedEvent event) {
+        String payload = event.getBook() != null ? toJson(event) : null;
+        String isbn = event.getBook() != null ? event.getBook().getIsbn() : event.getPreviousIsbn();
+
+        // 트랜잭션의 첫 변경에서 카운터 행을 잠근다 (커밋까지 유지, 같은 트랜잭션의 다음 변경은 SQL 없이 재사용)
+        BookChangeSequence sequence = entityManager.find(BookChangeSequence.class, BookChangeSequence.ID);
+        if (sequence == null) {
+            throw new IllegalStateException("book_change_sequence 가 초기화되지 않았습니다.");
+        }
+        if (entityManager.getLockMode(sequence) != LockModeType.PESSIMISTIC_WRITE) {
+            entityManager.flush();
+            entityManager.refresh(sequence, LockModeType.PESSIMISTIC_WRITE);
+        }
+        entityManager.persist(BookChange.builder()
+                .seq(sequence.next())
+                .bookId(event.getBookId())
+                .type(event.getType())
+                .isbn(isbn)
+                .payload(payload)
+                .occurredAt(Instant.now())
+                .build());
+    }
+
+    private String toJson(BookChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event.getBook());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
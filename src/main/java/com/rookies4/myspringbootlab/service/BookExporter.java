@@ -0,0 +1,215 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Locale;
+
+/*
+    전체 카탈로그 내보내기 (GET /api/books/export)
+    JPA 엔티티/DTO 를 만들지 않고 JDBC 커서(forward-only, fetch-size 단위)에서 읽은 행을 바로 출력 스트림에 쓴다.
+    → 결과 전체도, 영속성 컨텍스트도 메모리에 쌓이지 않으므로 행 수와 관계없이 메모리 사용량이 일정하다.
+    읽기 전용 트랜잭션 하나로 읽으므로 (라우팅이 켜져 있으면 replica 에서) 한 시점의 일관된 결과가 나간다.
+ */
+@Slf4j
+@Component
+public class BookExporter {
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("지원하지 않는 형식입니다: " + value + " (csv, ndjson)", HttpStatus.BAD_REQUEST);
+            }
+        }
+    }
+
+    // BookDTO.Response 와 같은 필드 (CSV 는 detail 을 펼친 열로)
+    private static final String SQL = "select b.id, b.title, b.author, b.isbn, b.price, b.publish_date, b.version, "
+            + "b.updated_at, d.id, d.description, d.language, d.page_count, d.publisher, d.cover_image_url, "
+            + "d.edition, d.version, d.updated_at "
+            + "from books b left join book_details d on d.book_id = b.id order by b.id";
+
+    private static final String CSV_HEADER = "id,title,author,isbn,price,publish_date,version,last_modified,"
+            + "detail_id,description,language,page_count,publisher,cover_image_url,edition,detail_version\r\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+
+    public BookExporter(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /** 전체 도서를 format 으로 out 에 쓰고 행 수를 돌려준다 (out 은 닫지 않음) */
+    public long export(Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+        long[] rows = {0};
+        try {
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(SQL, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    // 클라이언트가 끊으면 여기서 중단 → 커서/트랜잭션 정리
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("도서 내보내기 완료 ({}): {}건, {}ms", format, rows[0], System.currentTimeMillis() - started);
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer out;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.out.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= 16; i++) {
+                if (i > 1) out.write(',');
+                Object value = i == 8 ? lastModified(rs) : rs.getObject(i);
+                if (value != null) writeField(value.toString());
+            }
+            out.write("\r\n");
+        }
+
+        // RFC 4180: 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong(1));
+            json.writeStringField("title", rs.getString(2));
+            json.writeStringField("author", rs.getString(3));
+            json.writeStringField("isbn", rs.getString(4));
+            writeNumber("price", rs.getObject(5, Integer.class));
+            json.writeStringField("publishDate", String.valueOf(rs.getDate(6).toLocalDate()));
+            writeNumber("version", rs.getObject(7, Long.class));
+            Instant lastModified = lastModified(rs);
+            json.writeStringField("lastModified", lastModified != null ? lastModified.toString() : null);
+            Long detailId = rs.getObject(9, Long.class);
+            if (detailId == null) {
+                json.writeNullField("detail");
+            } else {
+                json.writeObjectFieldStart("detail");
+                json.writeNumberField("id", detailId);
+                json.writeStringField("description", rs.getString(10));
+                json.writeStringField("language", rs.getString(11));
+                writeNumber("pageCount", rs.getObject(12, Integer.class));
+                json.writeStringField("publisher", rs.getString(13));
+                json.writeStringField("coverImageUrl", rs.getString(14));
+                json.writeStringField("edition", rs.getString(15));
+                writeNumber("version", rs.getObject(16, Long.class));
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeNumber(String name, Number value) throws IOException {
+            json.writeFieldName(name);
+            if (value == null) json.writeNull();
+            else json.writeNumber(value.longValue());
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    // BookDTO.Response.lastModified 와 같은 규칙: book / detail 중 나중에 수정된 시각
+    private static Instant lastModified(ResultSet rs) throws SQLException {
+        Timestamp book = rs.getTimestamp(8);
+        Timestamp detail = rs.getTimestamp(17);
+        if (book == null) return detail != null ? detail.toInstant() : null;
+        if (detail == null || !detail.after(book)) return book.toInstant();
+        return detail.toInstant();
+    }
+}
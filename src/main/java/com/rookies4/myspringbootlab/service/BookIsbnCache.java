@@ -0,0 +1,109 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    ISBN 단건 조회용 read-through 캐시 (ISBN → BookDTO.Response)
+    쓰기 작업이 커밋된 뒤에 갱신/무효화한다.
+    키는 DB 와 똑같이 받은 그대로 쓴다 (정규화하면 DB 에 없는 표기가 캐시에서만 찾아지거나 다른 도서와 섞임)
+    무효화하면 ISBN 마다 시각(tombstone)을 남기고, 그보다 먼저 DB 를 읽기 시작한 read-through put 은 버린다
+    (삭제/ISBN 변경 전에 읽은 행이 커밋 후 evict 보다 늦게 도착해 TTL 동안 다시 보이지 않도록)
+ */
+@Component
+public class BookIsbnCache {
+
+    public static final String CACHE_NAME = "booksByIsbn";
+    // tombstone 보관 시간. 이보다 오래 걸린 조회는 무효화 여부를 알 수 없으므로 캐시에 넣지 않는다
+    static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final Cache cache;
+    // ISBN → 마지막 무효화 시각 (System.nanoTime)
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> tombstones =
+            Caffeine.newBuilder().expireAfterWrite(TOMBSTONE_TTL).build();
+
+    public BookIsbnCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public BookDTO.Response get(String isbn) {
+        return isbn != null ? cache.get(isbn, BookDTO.Response.class) : null;
+    }
+
+    /** DB 를 읽기 전에 받아 두고 putIfNotInvalidated 에 넘긴다 */
+    public long readToken() {
+        return System.nanoTime();
+    }
+
+    /**
+     * read-through 결과를 넣는다. readToken 이후에 무효화됐거나 조회가 TOMBSTONE_TTL 보다 오래 걸렸으면 버리고,
+     * 이미 더 새 버전이 들어 있으면 그대로 둔다
+     * (커밋 전에 읽은 값이 커밋 후 이벤트로 넣은/지운 값보다 늦게 도착해도 되돌리지 않도록)
+     */
+    public void putIfNotInvalidated(BookDTO.Response book, long readToken) {
+        if (System.nanoTime() - readToken > TOMBSTONE_TTL.toNanos()) return;
+        // evict 와 같은 키 잠금 안에서 확인해야 확인과 넣기 사이에 끼어든 무효화를 놓치지 않는다
+        asMap().compute(book.getIsbn(), (isbn, old) -> {
+            Long invalidatedAt = tombstones.getIfPresent((String) isbn);
+            if (invalidatedAt != null && invalidatedAt - readToken >= 0) return old;
+            return old == null || isNewer(book, (BookDTO.Response) old) ? book : old;
+        });
+    }
+
+    public void evict(String isbn) {
+        if (isbn == null) return;
+        asMap().compute(isbn, (key, old) -> {
+            tombstones.put(isbn, System.nanoTime());
+            return null;
+        });
+    }
+
+    // 커밋된 값 - 무효화 여부와 관계없이 넣는다 (버전 비교만)
+    private void put(BookDTO.Response book) {
+        asMap().merge(book.getIsbn(), book, (old, neu) ->
+                isNewer((BookDTO.Response) neu, (BookDTO.Response) old) ? neu : old);
+    }
+
+    // 같은 도서면 version, detail version 순으로 비교 (같으면 새 값). 다른 도서가 ISBN 을 넘겨받았으면 새 값
+    private static boolean isNewer(BookDTO.Response neu, BookDTO.Response old) {
+        if (!Objects.equals(neu.getId(), old.getId())) return true;
+        int byVersion = Long.compare(versionOf(neu.getVersion()), versionOf(old.getVersion()));
+        if (byVersion != 0) return byVersion > 0;
+        return detailVersionOf(neu) >= detailVersionOf(old);
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : -1;
+    }
+
+    private static long detailVersionOf(BookDTO.Response book) {
+        return book.getDetail() != null ? versionOf(book.getDetail().getVersion()) : -1;
+    }
+
+    // Caffeine (운영) / ConcurrentMap (벤치마크) 캐시의 원본 맵
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<Object, Object> asMap() {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (ConcurrentMap<Object, Object>) caffeine.asMap();
+        }
+        return (ConcurrentMap<Object, Object>) nativeCache;
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        evict(event.getPreviousIsbn());
+        if (event.getBook() != null) {
+            put(event.getBook());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.entity.BookChange;
+import com.rookies4.myspringbootlab.entity.BookChangeSequence;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.properties.IsbnFilterProperties;
+import com.rookies4.myspringbootlab.repository.BookChangeRepository;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/*
+    등록된 ISBN 의 Bloom filter - 읽기(ISBN 조회)에서 필터에 없는 ISBN 은 DB 를 보지 않고 404
+    - 기동 시 전체 ISBN 을 읽어서 만들고 (구축 전에는 항상 "있을 수도 있음")
+      이 인스턴스의 쓰기는 이벤트로 바로, 다른 인스턴스의 쓰기는 sync-interval 마다 book_changes(outbox) 를 읽어서 넣는다
+    - outbox 를 거치지 않은 직접 쓰기와 삭제는 rebuild-interval 마다 전체를 다시 만들 때 반영된다
+    - 그래서 false 는 "이 인스턴스가 아는 한 없음"이다 (다른 곳에서 막 등록된 ISBN 은 잠깐 404 일 수 있음)
+      쓰기 경로의 ISBN 중복 확인에는 쓰지 않는다 (항상 DB 로 확인, BookService)
+    - 넣은 수가 expected-insertions 를 넘으면 두 배 크기로 다시 만든다
+ */
+@Slf4j
+@Component
+public class BookIsbnFilter implements SmartLifecycle {
+
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    private final BookRepository bookRepository;
+    private final BookChangeRepository bookChangeRepository;
+    private final IsbnFilterProperties properties;
+    private final TransactionTemplate readOnlyTx;
+    private final Counter rejections;
+
+    private volatile BloomFilter current;    // null 이면 아직 구축 전
+    private volatile BloomFilter building;   // 다시 만드는 중인 필터 (그 사이의 추가도 같이 받음)
+    private volatile long syncedThrough;     // 이 seq 까지의 book_changes 는 current 에 반영됨
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public BookIsbnFilter(BookRepository bookRepository, BookChangeRepository bookChangeRepository,
+                          IsbnFilterProperties properties, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.bookChangeRepository = bookChangeRepository;
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.rejections = Counter.builder("book.isbn_filter.rejections")
+                .description("Bloom filter 로 DB 조회 없이 걸러낸 없는 ISBN 수")
+                .register(meterRegistry);
+        Gauge.builder("book.isbn_filter.insertions", this, filter -> {
+                    BloomFilter bloom = filter.current;
+                    return bloom != null ? bloom.insertions() : 0;
+                })
+                .description("Bloom filter 에 넣은 ISBN 수 (대략)")
+                .register(meterRegistry);
+    }
+
+    /** false 면 이 인스턴스가 아는 한 없는 ISBN (true 는 있을 수도 있음 → DB 로 확인). 읽기 경로 전용 */
+    public boolean mightContain(String isbn) {
+        BloomFilter bloom = current;
+        if (isbn == null || bloom == null || !properties.isEnabled() || bloom.mightContain(isbn)) return true;
+        rejections.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void rebuild() {
+        rebuild(properties.getExpectedInsertions());
+    }
+
+    /**
+     * 전체 ISBN 으로 새로 만들어 교체
+     * 읽기 전의 outbox 위치부터 sync 를 이어가므로, 읽는 도중 커밋된 변경도 빠지지 않는다
+     * (building 을 먼저 걸어 두므로 이 인스턴스의 이벤트도 새 필터에 들어간다)
+     */
+    public void rebuild(int expectedInsertions) {
+        if (!properties.isEnabled() || !rebuilding.compareAndSet(false, true)) return;
+        try {
+            long started = System.currentTimeMillis();
+            BloomFilter next = new BloomFilter(expectedInsertions, properties.getFalsePositiveRate());
+            building = next;
+            long head = readOnlyTx.execute(status -> {
+                long seq = bookChangeRepository.findSequence().map(BookChangeSequence::getLastSeq).orElse(0L);
+                try (Stream<String> isbns = bookRepository.streamIsbnBy()) {
+                    isbns.forEach(next::put);
+                }
+                return seq;
+            });
+            synchronized (this) {
+                current = next;
+                syncedThrough = head;
+            }
+            log.info("ISBN Bloom filter 구축 완료: {}건, {}KB, {}ms", next.insertions(), next.sizeInBytes() / 1024,
+                    System.currentTimeMillis() - started);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /** syncedThrough 다음의 book_changes 를 읽어 ISBN 을 넣는다 (보관 기간이 지나 놓친 구간이 있으면 전체를 다시) */
+    public synchronized void sync() {
+        BloomFilter bloom = current;
+        if (bloom == null || !properties.isEnabled()) return;
+        boolean missed = Boolean.TRUE.equals(readOnlyTx.execute(status -> {
+            BookChangeSequence sequence = bookChangeRepository.findSequence().orElse(null);
+            if (sequence == null) return false;
+            if (syncedThrough < sequence.getPurgedThrough()) return true;
+
+            List<BookChange> changes;
+            while (!(changes = bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(
+                    syncedThrough, Limit.of(SYNC_BATCH_SIZE))).isEmpty()) {
+                for (BookChange change : changes) {
+                    if (change.getType() != BookChangedEvent.Type.DELETED) put(change.getIsbn());
+                }
+                syncedThrough = changes.get(changes.size() - 1).getSeq();
+            }
+            return false;
+        }));
+        if (missed) scheduler.execute(this::rebuild);
+    }
+
+    // 발행 즉시(커밋 전) 추가: 커밋 직후 같은 ISBN 조회가 404 가 되지 않도록 (롤백돼도 틀린 "있음"일 뿐)
+    @EventListener
+    public void onBookChanging(BookChangedEvent event) {
+        if (event.getBook() != null) put(event.getBook().getIsbn());
+    }
+
+    private void put(String isbn) {
+        if (isbn == null) return;
+        BloomFilter bloom = current;
+        if (bloom != null) {
+            bloom.put(isbn);
+            if (bloom.insertions() > bloom.expectedInsertions() && !rebuilding.get() && scheduler != null) {
+                int expected = (int) Math.min(Integer.MAX_VALUE / 2, bloom.expectedInsertions() * 2L);
+                scheduler.execute(() -> rebuild(expected));
+            }
+        }
+        BloomFilter next = building;
+        if (next != null) next.put(isbn);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "isbn-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sync = properties.getSyncInterval().toMillis();
+        long rebuild = properties.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> quietly(this::sync), sync, sync, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> quietly(this::rebuild), rebuild, rebuild, TimeUnit.MILLISECONDS);
+    }
+
+    // 스케줄 작업은 예외가 나면 다음 실행이 취소되므로 여기서 막는다
+    private void quietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("ISBN Bloom filter 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /*
+        비트 배열(AtomicLongArray, 동시 추가 안전) + k 개 해시 (64비트 해시 하나를 두 개로 나눠 h1 + i*h2)
+        m = -n ln p / (ln 2)^2, k = m/n ln 2  (n=100만, p=1% → 약 1.2MB, k=7)
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final int expectedInsertions;
+        private final LongAdder insertions = new LongAdder();
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(expectedInsertions, 1);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashCount; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.getAndAccumulate(word, mask, (a, b) -> a | b);
+                    changed = true;
+                }
+            }
+            // 이미 있던 ISBN(수정 이벤트 등)은 세지 않는다
+            if (changed) insertions.increment();
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+            }
+            return true;
+        }
+
+        long insertions() {
+            return insertions.sum();
+        }
+
+        int expectedInsertions() {
+            return expectedInsertions;
+        }
+
+        long sizeInBytes() {
+            return bits.length() * 8L;
+        }
+
+        // FNV-1a 64 + splitmix64 마무리 (비슷한 ISBN 끼리도 비트가 고르게 퍼지도록)
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 30;
+            h *= 0xbf58476d1ce4e5b9L;
+            h ^= h >>> 27;
+            h *= 0x94d049bb133111ebL;
+            h ^= h >>> 31;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/*
+    도서 1권의 응답 JSON(UTF-8 byte[]) 을 미리 만들어 두는 캐시 (id → 버전 + JSON)
+    - 쓰기가 커밋되면 이벤트로 다시 렌더링 / 삭제
+    - (book version, detail version) 이 다르면 없는 것으로 본다 (이벤트보다 늦게 도착한 예전 값 방지)
+    단건/목록/검색 응답은 이 조각을 그대로 쓰거나 이어 붙여서 만든다 (Jackson 직렬화 생략)
+ */
+@Component
+public class BookJsonCache {
+
+    private static final byte[] PAGE_START = "{\"content\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+
+    private record Rendered(Long version, Long detailVersion, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Rendered> cache;
+
+    public BookJsonCache(ObjectMapper objectMapper,
+                         @Value("${app.json-cache.maximum-size:20000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /** 캐시된 JSON (버전이 다르거나 없으면 null) */
+    public byte[] get(Long id, Long version, Long detailVersion) {
+        Rendered rendered = cache.getIfPresent(id);
+        if (rendered == null || !Objects.equals(rendered.version(), version)
+                || !Objects.equals(rendered.detailVersion(), detailVersion)) {
+            return null;
+        }
+        return rendered.json();
+    }
+
+    /** 같은 버전의 JSON 이 있으면 그대로, 없으면 렌더링해서 저장 */
+    public byte[] getOrRender(BookDTO.Response book) {
+        byte[] json = get(book.getId(), book.getVersion(), detailVersionOf(book));
+        return json != null ? json : put(book);
+    }
+
+    /** 목록 응답: JSON 배열 [a,b,c] */
+    public byte[] array(List<BookDTO.Response> books) {
+        List<byte[]> fragments = new ArrayList<>(books.size());
+        for (BookDTO.Response book : books) {
+            fragments.add(getOrRender(book));
+        }
+        return join(ARRAY_START, fragments, ARRAY_END);
+    }
+
+    /**
+     * 커서 페이지 응답 (BookDTO.CursorPage 와 같은 모양)
+     * versions 는 pageSize + 1 건까지 옴. 캐시에 없는(또는 버전이 바뀐) 도서만 loader 로 읽어서 채운다.
+     */
+    public byte[] page(List<BookRepository.VersionView> versions, int pageSize,
+                       Function<Collection<Long>, List<BookDTO.Response>> loader) {
+        boolean hasNext = versions.size() > pageSize;
+        List<BookRepository.VersionView> content = versions.subList(0, Math.min(pageSize, versions.size()));
+
+        Map<Long, byte[]> fragments = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (BookRepository.VersionView v : content) {
+            byte[] json = get(v.getId(), v.getVersion(), v.getDetailVersion());
+            if (json != null) fragments.put(v.getId(), json);
+            else missing.add(v.getId());
+        }
+        if (!missing.isEmpty()) {
+            for (BookDTO.Response book : loader.apply(missing)) {
+                fragments.put(book.getId(), put(book));
+            }
+        }
+
+        List<byte[]> ordered = new ArrayList<>(content.size());
+        for (BookRepository.VersionView v : content) {
+            byte[] json = fragments.get(v.getId());
+            if (json != null) ordered.add(json);   // 그 사이 삭제된 도서는 건너뜀
+        }
+
+        String tail = "],\"nextCursor\":" + (hasNext ? content.get(content.size() - 1).getId() : "null")
+                + ",\"hasNext\":" + hasNext + "}";
+        return join(PAGE_START, ordered, tail.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getBook() != null) {
+            put(event.getBook());
+        } else {
+            evict(event.getBookId());
+        }
+    }
+
+    private byte[] put(BookDTO.Response book) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(book);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        cache.put(book.getId(), new Rendered(book.getVersion(), detailVersionOf(book), json));
+        return json;
+    }
+
+    private static Long detailVersionOf(BookDTO.Response book) {
+        return book.getDetail() != null ? book.getDetail().getVersion() : null;
+    }
+
+    // head + fragments(',' 로 구분) + tail 을 정확한 크기의 배열 하나에 복사
+    private static byte[] join(byte[] head, List<byte[]> fragments, byte[] tail) {
+        int size = head.length + tail.length + Math.max(fragments.size() - 1, 0);
+        for (byte[] fragment : fragments) size += fragment.length;
+
+        byte[] out = new byte[size];
+        System.arraycopy(head, 0, out, 0, head.length);
+        int pos = head.length;
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) out[pos++] = ',';
+            byte[] fragment = fragments.get(i);
+            System.arraycopy(fragment, 0, out, pos, fragment.length);
+            pos += fragment.length;
+        }
+        System.arraycopy(tail, 0, out, pos, tail.length);
+        return out;
+    }
+}
@@ -3,52 +3,218 @@ package com.rookies4.myspringbootlab.service;
 import com.rookies4.myspringbootlab.controller.dto.BookDTO;
 import com.rookies4.myspringbootlab.entity.Book;
 import com.rookies4.myspringbootlab.entity.BookDetail;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.repository.BookBulkRepository;
+import com.rookies4.myspringbootlab.repository.BookDetailRepository;
+import com.rookies4.myspringbootlab.repository.BookFacetRepository;
 import com.rookies4.myspringbootlab.repository.BookRepository;
+import com.rookies4.myspringbootlab.repository.BookSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.util.List;
-import java.util.Map;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "book.service", histogram = true)   // 메서드별 지연 (class, method 태그)
 public class BookService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SUGGESTIONS = 50;
+    public static final int DEFAULT_FACET_SIZE = 10;
+    public static final int MAX_FACET_SIZE = 50;
+    public static final int BULK_CHUNK_SIZE = 1000;   // 대량 등록 시 트랜잭션 1개가 처리하는 행 수
+    private static final int BULK_FLUSH_SIZE = 500;   // flush + clear 주기 (batch_size 의 배수)
+    private static final int BULK_IN_SIZE = 1000;     // 대량 수정/삭제 시 IN 목록 하나의 크기
+
     private final BookRepository bookRepository;
+    private final BookDetailRepository bookDetailRepository;
+    private final EntityManager entityManager;
+    private final BookIsbnCache bookIsbnCache;
+    private final BookTitleIndex bookTitleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final BookIsbnFilter bookIsbnFilter;
+
+    /** 전체 목록 (id 기준 키셋 페이지네이션) */
+    public BookDTO.CursorPage getPage(Long cursor, int size) {
+        int pageSize = pageSizeOf(size);
+        // 한 건 더 읽어서 다음 페이지 존재 여부 판단
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                cursor == null ? 0L : cursor, Limit.of(pageSize + 1));
+
+        boolean hasNext = books.size() > pageSize;
+        List<BookDTO.Response> content = books.stream()
+                .limit(pageSize)
+                .map(BookDTO.Response::fromEntity)
+                .toList();
+
+        return BookDTO.CursorPage.builder()
+                .content(content)
+                .nextCursor(hasNext ? content.get(content.size() - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /** id 목록으로 조회 (순서 보장 없음, 없는 id 는 빠짐) */
+    public List<BookDTO.Response> getByIds(Collection<Long> ids) {
+        return bookRepository.findByIdIn(ids).stream()
+                .map(BookDTO.Response::fromEntity)
+                .toList();
+    }
+
+    /** 목록 페이지와 같은 범위의 id/버전만 조회 (조건부 GET 판단용, DTO 변환 없음) */
+    public List<BookRepository.VersionView> getPageVersions(Long cursor, int size) {
+        return bookRepository.findVersionsAfter(cursor == null ? 0L : cursor, Limit.of(pageSizeOf(size) + 1));
+    }
 
-    /** 전체 목록 */
-    public List<BookDTO.Response> getAll() {
-        return bookRepository.findAll()
-                .stream().map(BookDTO.Response::fromEntity).toList();
+    public static int pageSizeOf(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /** 전체 목록 스트리밍 (한 건씩 detach 해서 영속성 컨텍스트가 커지지 않게 유지) */
+    public void streamAll(Consumer<BookDTO.Response> consumer) {
+        try (Stream<Book> books = bookRepository.streamAllBy()) {
+            books.forEach(book -> {
+                consumer.accept(BookDTO.Response.fromEntity(book));
+                entityManager.detach(book);
+            });
+        }
     }
 
-    /** ISBN 단건 조회 */
+    /** ISBN 단건 조회 (캐시 우선) */
     public BookDTO.Response getByIsbn(String isbn) {
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new IllegalArgumentException("ISBN으로 책을 찾을 수 없습니다."));
-        return BookDTO.Response.fromEntity(book);
+        BookDTO.Response cached = bookIsbnCache.get(isbn);
+        if (cached != null) return cached;
+
+        // 필터에 없는 ISBN 은 DB 를 보지 않고 404 (다른 인스턴스에서 막 생긴 도서는 sync-interval 만큼 늦게 보일 수 있음)
+        if (!bookIsbnFilter.mightContain(isbn)) throw isbnNotFound();
+        long readToken = bookIsbnCache.readToken();
+        Book book = bookRepository.findByIsbn(isbn).orElseThrow(BookService::isbnNotFound);
+        BookDTO.Response response = BookDTO.Response.fromEntity(book);
+        bookIsbnCache.putIfNotInvalidated(response, readToken);
+        return response;
+    }
+
+    /** 저자 검색 (대소문자/공백 차이 무시, prefix 면 접두어 일치) */
+    public List<BookDTO.Response> searchByAuthor(String author, boolean prefix, int page, int size) {
+        String key = Book.authorKeyOf(author);
+        if (key == null || key.isEmpty()) return List.of();
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        List<Book> books = prefix
+                ? bookRepository.findByAuthorKeyStartingWithOrderByAuthorKeyAscIdAsc(key, pageable)
+                : bookRepository.findByAuthorKeyOrderByIdAsc(key, pageable);
+        return books.stream().map(BookDTO.Response::fromEntity).toList();
+    }
+
+    /** 저자 자동완성 (정규화 키 접두어, 인덱스만 읽음) */
+    public List<String> suggestAuthors(String prefix, int size) {
+        String key = Book.authorKeyOf(prefix);
+        if (key == null || key.isEmpty()) return List.of();
+
+        String pattern = key.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return bookRepository.findAuthorSuggestions(pattern, Limit.of(Math.min(Math.max(size, 1), MAX_SUGGESTIONS)));
+    }
+
+    /** 제목 검색(부분 일치, 메모리 인덱스에서 순위/페이지 결정 후 해당 id 만 조회) */
+    public List<BookDTO.Response> searchByTitle(String title, int page, int size) {
+        List<Long> ids = bookTitleIndex.search(title, Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findByIdIn(ids)) books.put(book.getId(), book);
+
+        // 인덱스가 정한 순위대로 (그 사이 삭제된 도서는 제외)
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(BookDTO.Response::fromEntity)
+                .toList();
+    }
+
+    /**
+     * 카탈로그 조회: 조건을 SQL 한 문장으로 (id 순 페이지 + count)
+     * facets 면 출판사/언어/연도별 권수도 함께 (패싯마다 group by 쿼리 1개, 인덱스만 읽음)
+     */
+    public BookDTO.QueryResponse query(BookDTO.QueryCondition condition, int page, int size,
+                                       boolean facets, int facetSize) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSizeOf(size), Sort.by("id"));
+        Page<Book> books = bookRepository.findAll(specOf(condition, null), pageable);
+
+        BookDTO.Facets facetCounts = null;
+        if (facets) {
+            int limit = Math.min(Math.max(facetSize, 1), MAX_FACET_SIZE);
+            facetCounts = BookDTO.Facets.builder()
+                    .publisher(countByFacet(condition, BookFacetRepository.Facet.PUBLISHER, limit))
+                    .language(countByFacet(condition, BookFacetRepository.Facet.LANGUAGE, limit))
+                    .year(countByFacet(condition, BookFacetRepository.Facet.YEAR, limit))
+                    .build();
+        }
+
+        return BookDTO.QueryResponse.builder()
+                .content(books.map(BookDTO.Response::fromEntity).getContent())
+                .page(books.getNumber())
+                .size(books.getSize())
+                .totalElements(books.getTotalElements())
+                .hasNext(books.hasNext())
+                .facets(facetCounts)
+                .build();
     }
 
-    /** 저자 검색 */
-    public List<BookDTO.Response> searchByAuthor(String author) {
-        return bookRepository.findByAuthor(author)
-                .stream().map(BookDTO.Response::fromEntity).toList();
+    private List<BookFacetRepository.FacetCount> countByFacet(BookDTO.QueryCondition condition,
+                                                              BookFacetRepository.Facet facet, int limit) {
+        return bookRepository.countByFacet(specOf(condition, facet), facet, limit);
     }
 
-    /** 제목 검색(부분 일치) */
-    public List<BookDTO.Response> searchByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title)
-                .stream().map(BookDTO.Response::fromEntity).toList();
+    // 조건 → Specification (excluded 패싯의 조건은 뺀다)
+    private static Specification<Book> specOf(BookDTO.QueryCondition c, BookFacetRepository.Facet excluded) {
+        List<Specification<Book>> specs = new ArrayList<>();
+        specs.add(BookSpecifications.authorKeyIs(Book.authorKeyOf(c.getAuthor())));
+        specs.add(BookSpecifications.titleContains(c.getTitle()));
+        specs.add(BookSpecifications.priceBetween(c.getMinPrice(), c.getMaxPrice()));
+        if (excluded != BookFacetRepository.Facet.YEAR) {
+            specs.add(BookSpecifications.publishedBetween(c.getPublishedFrom(), c.getPublishedTo()));
+        }
+        if (excluded != BookFacetRepository.Facet.PUBLISHER) {
+            specs.add(BookSpecifications.publisherIs(c.getPublisher()));
+        }
+        if (excluded != BookFacetRepository.Facet.LANGUAGE) {
+            specs.add(BookSpecifications.languageIs(c.getLanguage()));
+        }
+        specs.removeIf(Objects::isNull);
+        return Specification.allOf(specs);
     }
 
     /** 생성 */
     @Transactional
     public BookDTO.Response create(BookDTO.Request request) {
         if (bookRepository.existsByIsbn(request.getIsbn())) {
-            throw new IllegalArgumentException("이미 사용 중인 ISBN 입니다: " + request.getIsbn());
+            throw isbnConflict(request.getIsbn());
         }
 
         Book book = new Book();
@@ -59,18 +225,109 @@ public class BookService {
         book.setPublishDate(request.getPublishDate());
 
         Book saved = bookRepository.save(book);
-        return BookDTO.Response.fromEntity(saved);
+        entityManager.flush(); // version / updatedAt 확정 후 응답 생성
+        BookDTO.Response response = BookDTO.Response.fromEntity(saved);
+        eventPublisher.publishEvent(BookChangedEvent.created(response));
+        return response;
+    }
+
+    /**
+     * 대량 등록 (청크 하나 = 트랜잭션 하나)
+     * ISBN 중복은 청크 전체를 IN 쿼리 한 번으로 확인하고, 실패한 행은 건너뛰고 결과에 사유를 남긴다.
+     */
+    @Transactional
+    public List<BookDTO.BulkResult> importBooks(List<BookDTO.Request> requests, int indexOffset) {
+        Set<String> requestedIsbns = requests.stream()
+                .map(BookDTO.Request::getIsbn)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existingIsbns = requestedIsbns.isEmpty()
+                ? Set.of() : bookRepository.findExistingIsbns(requestedIsbns);
+
+        List<BookDTO.BulkResult> results = new ArrayList<>(requests.size());
+        Set<String> seenIsbns = new HashSet<>();
+        List<Book> unflushed = new ArrayList<>(BULK_FLUSH_SIZE);
+
+        for (int i = 0; i < requests.size(); i++) {
+            BookDTO.Request request = requests.get(i);
+            int index = indexOffset + i;
+
+            String error = validate(request);
+            if (error == null && (existingIsbns.contains(request.getIsbn()) || !seenIsbns.add(request.getIsbn()))) {
+                error = "이미 사용 중인 ISBN 입니다: " + request.getIsbn();
+            }
+            if (error != null) {
+                results.add(BookDTO.BulkResult.builder()
+                        .index(index).isbn(request.getIsbn()).success(false).message(error).build());
+                continue;
+            }
+
+            Book saved = bookRepository.save(toEntity(request));
+            unflushed.add(saved);
+            results.add(BookDTO.BulkResult.builder()
+                    .index(index).isbn(saved.getIsbn()).success(true).id(saved.getId()).build());
+
+            if (unflushed.size() == BULK_FLUSH_SIZE) {
+                flushImported(unflushed);
+            }
+        }
+        flushImported(unflushed);
+        return results;
+    }
+
+    // flush 후(version / updatedAt 확정) 이벤트 발행, 영속성 컨텍스트 비우기
+    private void flushImported(List<Book> books) {
+        if (books.isEmpty()) return;
+        entityManager.flush();
+        for (Book book : books) {
+            eventPublisher.publishEvent(BookChangedEvent.created(BookDTO.Response.fromEntity(book)));
+        }
+        books.clear();
+        entityManager.clear();
+    }
+
+    private String validate(BookDTO.Request request) {
+        Set<ConstraintViolation<BookDTO.Request>> violations = validator.validate(request);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Book toEntity(BookDTO.Request request) {
+        Book book = new Book();
+        book.setTitle(request.getTitle());
+        book.setAuthor(request.getAuthor());
+        book.setIsbn(request.getIsbn());
+        book.setPrice(request.getPrice());
+        book.setPublishDate(request.getPublishDate());
+
+        BookDTO.BookDetailDTO d = request.getDetailRequest();
+        if (d != null) {
+            book.setBookDetail(BookDetail.builder()
+                    .description(d.getDescription())
+                    .language(d.getLanguage())
+                    .pageCount(d.getPageCount())
+                    .publisher(d.getPublisher())
+                    .coverImageUrl(d.getCoverImageUrl())
+                    .edition(d.getEdition())
+                    .build());
+        }
+        return book;
     }
 
     /** 전체 수정 (PUT) */
     @Transactional
-    public BookDTO.Response update(Long id, BookDTO.Request request) {
+    public BookDTO.Response update(Long id, BookDTO.Request request, BookDTO.ExpectedVersion expected) {
         Book book = getExistBookById(id);
+        checkVersion(book, expected);
+        String previousIsbn = book.getIsbn();
 
         // ISBN 변경 시에만 중복 체크
         if (!book.getIsbn().equals(request.getIsbn())
                 && bookRepository.existsByIsbn(request.getIsbn())) {
-            throw new IllegalArgumentException("이미 사용 중인 ISBN 입니다: " + request.getIsbn());
+            throw isbnConflict(request.getIsbn());
         }
 
         book.setTitle(request.getTitle());
@@ -79,7 +336,7 @@ public class BookService {
         book.setPrice(request.getPrice());
         book.setPublishDate(request.getPublishDate());
 
-        return BookDTO.Response.fromEntity(book);
+        return publishUpdated(previousIsbn, book);
     }
 
     /** 삭제 */
@@ -87,89 +344,166 @@ public class BookService {
     public void deleteBook(Long id) {
         Book book = getExistBookById(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book.getId(), book.getIsbn()));
     }
 
-    private Book getExistBookById(Long id) {
-        return bookRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("해당 ID의 도서를 찾을 수 없습니다."));
+    /**
+     * 대량 삭제: id 목록 → IN 단위로 book_details 먼저, 다음 books (도서당 SELECT/DELETE 없이 IN 목록마다 2문장)
+     * 없는 id 는 건너뛰고, 실제로 지운 도서 수를 돌려준다. 전체가 한 트랜잭션.
+     */
+    @Transactional
+    public BookDTO.BulkChangeResponse deleteBooks(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int matched = 0;
+        int deleted = 0;
+        for (List<Long> chunk : chunks(distinct)) {
+            List<BookBulkRepository.IdIsbn> found = bookRepository.findIdIsbn(BookSpecifications.idIn(chunk));
+            if (found.isEmpty()) continue;
+            matched += found.size();
+            List<Long> foundIds = found.stream().map(BookBulkRepository.IdIsbn::id).toList();
+            bookDetailRepository.deleteByBookIdIn(foundIds);
+            deleted += bookRepository.deleteByIdIn(foundIds);
+            for (BookBulkRepository.IdIsbn book : found) {
+                eventPublisher.publishEvent(BookChangedEvent.deleted(book.id(), book.isbn()));
+            }
+        }
+        return BookDTO.BulkChangeResponse.builder()
+                .requested(distinct.size())
+                .matched(matched)
+                .affected(deleted)
+                .build();
     }
 
+    /**
+     * 대량 가격 변경: 카탈로그 조회와 같은 조건(QueryCondition)에 맞는 도서의 가격을 UPDATE 문으로
+     * 대상 id/ISBN 만 먼저 읽고 (캐시 무효화용), IN 단위로 UPDATE. version 도 1씩 오른다. 전체가 한 트랜잭션.
+     */
     @Transactional
-    public BookDTO.Response patch(Long id, Map<String, Object> fields) {
-        // Book 가져오기 (지연로딩으로 detail 접근 가능)
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("해당 ID의 도서를 찾을 수 없습니다."));
-
-        // ---- Book 필드들 부분 업데이트 ----
-        if (fields.containsKey("title"))        book.setTitle((String) fields.get("title"));
-        if (fields.containsKey("author"))       book.setAuthor((String) fields.get("author"));
-        if (fields.containsKey("price"))        book.setPrice(toInteger(fields.get("price")));
-        if (fields.containsKey("publishDate"))  book.setPublishDate(toLocalDate(fields.get("publishDate")));
-
-        if (fields.containsKey("isbn")) {
-            String newIsbn = (String) fields.get("isbn");
-            if (newIsbn != null && !newIsbn.equals(book.getIsbn())
-                    && bookRepository.existsByIsbn(newIsbn)) {
-                throw new IllegalArgumentException("이미 사용 중인 ISBN 입니다: " + newIsbn);
+    public BookDTO.BulkChangeResponse changePrices(BookDTO.BulkPriceRequest request) {
+        if (request.getFilter() == null || request.getMode() == null || request.getValue() == null) {
+            throw new BusinessException("filter, mode, value 는 필수입니다. (전체 도서는 filter 를 {} 로)", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getMode() == BookDTO.BulkPriceRequest.Mode.SET && request.getValue() < 0) {
+            throw new BusinessException("가격은 0 이상이어야 합니다.", HttpStatus.BAD_REQUEST);
+        }
+
+        List<BookBulkRepository.IdIsbn> targets = bookRepository.findIdIsbn(specOf(request.getFilter(), null));
+        Instant now = Instant.now();
+        int updated = 0;
+        for (List<BookBulkRepository.IdIsbn> chunk : chunks(targets)) {
+            List<Long> ids = chunk.stream().map(BookBulkRepository.IdIsbn::id).toList();
+            updated += switch (request.getMode()) {
+                case SET -> bookRepository.setPrice(ids, (int) Math.round(request.getValue()), now);
+                case ADD -> bookRepository.addPrice(ids, (int) Math.round(request.getValue()), now);
+                case PERCENT -> bookRepository.scalePrice(ids, 1 + request.getValue() / 100, now);
+            };
+            for (BookBulkRepository.IdIsbn book : chunk) {
+                eventPublisher.publishEvent(BookChangedEvent.invalidated(book.id(), book.isbn()));
             }
-            book.setIsbn(newIsbn);
         }
+        return BookDTO.BulkChangeResponse.builder()
+                .requested(targets.size())
+                .matched(targets.size())
+                .affected(updated)
+                .build();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BULK_IN_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + BULK_IN_SIZE, list.size())));
+        }
+        return chunks;
+    }
 
-        // ---- BookDetail 일부 업데이트 (중첩 JSON: bookDetail:{...}) ----
-        if (fields.containsKey("bookDetail") && fields.get("bookDetail") instanceof Map<?,?> m) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> d = (Map<String, Object>) m;
+    private Book getExistBookById(Long id) {
+        return bookRepository.findBookDetailByBookId(id)
+                .orElseThrow(() -> BusinessException.notFound("해당 ID의 도서를 찾을 수 없습니다."));
+    }
 
-            BookDetail detail = book.getBookDetail();
-            if (detail == null) {
-                detail = new BookDetail();
-                book.setBookDetail(detail); // 양방향 연결
-            }
+    // 중복 확인은 항상 DB 로 (Bloom filter 는 다른 인스턴스/직접 쓰기를 늦게 반영하므로 읽기에만 사용)
+    private static BusinessException isbnConflict(String isbn) {
+        return new BusinessException("이미 사용 중인 ISBN 입니다: " + isbn, HttpStatus.CONFLICT);
+    }
 
-            if (d.containsKey("description"))    detail.setDescription((String) d.get("description"));
-            if (d.containsKey("language"))       detail.setLanguage((String) d.get("language"));
-            if (d.containsKey("pageCount"))      detail.setPageCount(toInteger(d.get("pageCount")));
-            if (d.containsKey("publisher"))      detail.setPublisher((String) d.get("publisher"));
-            if (d.containsKey("coverImageUrl"))  detail.setCoverImageUrl((String) d.get("coverImageUrl"));
-            if (d.containsKey("edition"))        detail.setEdition((String) d.get("edition"));
+    private static BusinessException isbnNotFound() {
+        return BusinessException.notFound("ISBN으로 책을 찾을 수 없습니다.");
+    }
+
+    @Transactional
+    public BookDTO.Response patch(Long id, BookDTO.PatchRequest patch, BookDTO.ExpectedVersion expected) {
+        // Book + detail 한 번에 가져오기
+        Book book = getExistBookById(id);
+        checkVersion(book, expected);
+        String previousIsbn = book.getIsbn();
+
+        if (patch.hasIsbn() && patch.getIsbn() != null && !patch.getIsbn().equals(previousIsbn)
+                && bookRepository.existsByIsbn(patch.getIsbn())) {
+            throw isbnConflict(patch.getIsbn());
         }
 
-        return BookDTO.Response.fromEntity(book);
+        if (!patch.applyTo(book)) {
+            return unchanged(book);
+        }
+        return publishUpdated(previousIsbn, book);
     }
 
     /** (선택) BookDetail만 부분 수정하는 전용 PATCH */
     @Transactional
-    public BookDTO.Response patchDetail(Long id, Map<String, Object> fields) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("해당 ID의 도서를 찾을 수 없습니다."));
+    public BookDTO.Response patchDetail(Long id, BookDTO.DetailPatchRequest patch, BookDTO.ExpectedVersion expected) {
+        Book book = getExistBookById(id);
+        checkVersion(book, expected);
 
-        BookDetail detail = book.getBookDetail();
-        if (detail == null) {
-            detail = new BookDetail();
-            book.setBookDetail(detail);
+        if (!patch.applyTo(book)) {
+            return unchanged(book);
         }
+        return publishUpdated(book.getIsbn(), book);
+    }
 
-        if (fields.containsKey("description"))    detail.setDescription((String) fields.get("description"));
-        if (fields.containsKey("language"))       detail.setLanguage((String) fields.get("language"));
-        if (fields.containsKey("pageCount"))      detail.setPageCount(toInteger(fields.get("pageCount")));
-        if (fields.containsKey("publisher"))      detail.setPublisher((String) fields.get("publisher"));
-        if (fields.containsKey("coverImageUrl"))  detail.setCoverImageUrl((String) fields.get("coverImageUrl"));
-        if (fields.containsKey("edition"))        detail.setEdition((String) fields.get("edition"));
+    /**
+     * write-behind 배치: 여러 도서의 detail 패치를 한 트랜잭션으로 반영 (조회 1번 + 배치 UPDATE/INSERT)
+     * 없는 도서 id 를 돌려준다. 하나라도 충돌하면 전체가 롤백된다.
+     */
+    @Transactional
+    public Set<Long> patchDetails(Map<Long, BookDTO.DetailPatchRequest> patches) {
+        Set<Long> missing = new HashSet<>(patches.keySet());
+        List<Book> changed = new ArrayList<>();
+        for (Book book : bookRepository.findByIdIn(patches.keySet())) {
+            missing.remove(book.getId());
+            if (patches.get(book.getId()).applyTo(book)) changed.add(book);
+        }
+        entityManager.flush();
+        for (Book book : changed) {
+            eventPublisher.publishEvent(BookChangedEvent.updated(book.getIsbn(), BookDTO.Response.fromEntity(book)));
+        }
+        return missing;
+    }
 
-        return BookDTO.Response.fromEntity(book);
+    // If-Match 로 받은 버전과 현재 버전 비교 (expected 가 null 이면 조건 없음)
+    private void checkVersion(Book book, BookDTO.ExpectedVersion expected) {
+        if (expected == null) return;
+        Long detailVersion = book.getBookDetail() != null ? book.getBookDetail().getVersion() : null;
+        if (!Objects.equals(expected.getVersion(), book.getVersion())
+                || !Objects.equals(expected.getDetailVersion(), detailVersion)) {
+            throw new BusinessException("도서가 이미 변경되었습니다. 최신 버전을 다시 조회해 주세요.",
+                    HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
-    /* ---------- 변환 헬퍼 ---------- */
-    private Integer toInteger(Object v) {
-        if (v == null) return null;
-        if (v instanceof Number n) return n.intValue();
-        if (v instanceof String s && !s.isBlank()) return Integer.parseInt(s);
-        return null;
+    private BookDTO.Response publishUpdated(String previousIsbn, Book book) {
+        // version / updatedAt 은 flush 시점에 바뀌므로 응답/캐시에 반영되도록 먼저 flush
+        // (PATCH 로 새로 생긴 detail 도 여기서 insert 되어 id 가 채워짐)
+        entityManager.flush();
+        BookDTO.Response response = BookDTO.Response.fromEntity(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previousIsbn, response));
+        return response;
     }
-    private LocalDate toLocalDate(Object v) {
-        if (v == null) return null;
-        if (v instanceof LocalDate d) return d;
-        if (v instanceof String s && !s.isBlank()) return LocalDate.parse(s); // "yyyy-MM-dd"
-        throw new IllegalArgumentException("publishDate 형식이 올바르지 않습니다.(yyyy-MM-dd)");
+
+    // 바뀐 값이 없으면 읽기 전용으로 표시해서 커밋 시 dirty checking 대상에서 제외
+    private BookDTO.Response unchanged(Book book) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setReadOnly(book, true);
+        if (book.getBookDetail() != null) session.setReadOnly(book.getBookDetail(), true);
+        return BookDTO.Response.fromEntity(book);
     }
 }
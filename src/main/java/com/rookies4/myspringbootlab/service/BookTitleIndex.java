@@ -0,0 +1,209 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/*
+    제목 검색용 메모리 역색인 (3-gram → 도서 id)
+    LIKE '%x%' 풀스캔 대신 n-gram 교집합으로 후보를 좁히고, 후보만 실제 부분 일치 여부를 확인한다.
+    기동 시 전체를 한 번 읽어서 만들고, 이후에는 BookChangedEvent(커밋 후)로 갱신한다.
+    1~2자 검색어는 그 글자를 포함하는 3-gram 들(gram 종류 수만큼이라 작음)의 posting 합집합 + 3자 미만 제목으로 찾는다.
+    흔한 n-gram 이라 후보가 많아도 전체를 정렬하지 않고 요청한 페이지까지(최대 MAX_RESULT_WINDOW 건)만 힙에 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookTitleIndex {
+
+    private static final int GRAM = 3;
+    // 순위를 매겨 둘 수 있는 최대 위치 (page * size + size). 더 뒤의 페이지는 검색어를 좁혀야 한다
+    public static final int MAX_RESULT_WINDOW = 1000;
+
+    private final BookRepository bookRepository;
+
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    // 1~2자 부분 문자열 → 그것을 포함하는 3-gram (짧은 검색어용)
+    private final Map<String, Set<String>> gramsBySubstring = new ConcurrentHashMap<>();
+    // 3-gram 이 없는 (3자 미만) 제목
+    private final Set<Long> shortTitles = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try (Stream<BookRepository.IdTitle> rows = bookRepository.streamIdTitleBy()) {
+            rows.forEach(row -> index(row.getId(), row.getTitle()));
+        }
+        log.info("제목 인덱스 구축 완료: {}건, {}ms", titles.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else if (event.getBook() != null) {   // 무효화 이벤트(대량 가격 변경)는 제목이 그대로
+            index(event.getBookId(), event.getBook().getTitle());
+        }
+    }
+
+    public synchronized void index(Long id, String title) {
+        String normalized = normalize(title);
+        String previous = titles.put(id, normalized);
+        if (normalized.equals(previous)) return;
+        if (previous != null) unindex(id, previous);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, k -> {
+                for (String sub : substrings(k)) {
+                    gramsBySubstring.computeIfAbsent(sub, key -> ConcurrentHashMap.newKeySet()).add(k);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(id);
+        }
+        if (normalized.length() < GRAM) shortTitles.add(id);
+    }
+
+    public synchronized void remove(Long id) {
+        String previous = titles.remove(id);
+        if (previous != null) unindex(id, previous);
+    }
+
+    private void unindex(Long id, String title) {
+        for (String gram : grams(title)) removePosting(gram, id);
+        shortTitles.remove(id);
+    }
+
+    /**
+     * 부분 일치 검색 후 순위대로 정렬한 id 한 페이지
+     * 순위: 제목 전체 일치 > 제목 접두어 > 단어 접두어 > 그 외 부분 일치, 같은 순위면 짧은 제목 우선
+     * page 가 MAX_RESULT_WINDOW 를 넘으면 400
+     */
+    public List<Long> search(String query, int page, int size) {
+        String q = normalize(query);
+        if (q.isEmpty()) return List.of();
+        long window = (long) page * size + size;
+        if (window > MAX_RESULT_WINDOW) {
+            throw new BusinessException("제목 검색은 앞 " + MAX_RESULT_WINDOW + "건까지만 조회할 수 있습니다.",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        // 순위가 가장 낮은 것이 머리에 오는 힙 - window 건을 넘으면 머리를 버린다
+        Comparator<Map.Entry<Long, String>> order = order(q);
+        PriorityQueue<Map.Entry<Long, String>> top = new PriorityQueue<>((int) window + 1, order.reversed());
+        for (Long id : candidates(q)) {
+            String title = titles.get(id);
+            if (title == null || !title.contains(q)) continue;
+            Map.Entry<Long, String> match = Map.entry(id, title);
+            if (top.size() < window) {
+                top.add(match);
+            } else if (order.compare(match, top.peek()) < 0) {
+                top.poll();
+                top.add(match);
+            }
+        }
+
+        List<Map.Entry<Long, String>> matches = new ArrayList<>(top);
+        matches.sort(order);
+        int from = Math.min(page * size, matches.size());
+        return matches.subList(from, matches.size()).stream().map(Map.Entry::getKey).toList();
+    }
+
+    // 제목 전체 일치 > 제목 접두어 > 단어 접두어 > 그 외 부분 일치, 같은 순위면 짧은 제목, 그다음 id
+    private static Comparator<Map.Entry<Long, String>> order(String q) {
+        return Comparator
+                .comparingInt((Map.Entry<Long, String> e) -> rank(e.getValue(), q))
+                .thenComparingInt(e -> e.getValue().length())
+                .thenComparing(Map.Entry::getKey);
+    }
+
+    public int size() {
+        return titles.size();
+    }
+
+    // 검색어의 모든 3-gram 을 포함하는 id (가장 짧은 posting 을 돌면서 나머지에 모두 있는지 확인, 복사 없음)
+    // 3자 미만이면 검색어를 포함하는 3-gram 의 posting 합집합 + 3자 미만 제목 (부분 일치는 search 에서 다시 확인)
+    private Collection<Long> candidates(String q) {
+        if (q.length() < GRAM) {
+            Set<Long> result = new HashSet<>(shortTitles);
+            for (String gram : gramsBySubstring.getOrDefault(q, Set.of())) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) result.addAll(ids);
+            }
+            return result;
+        }
+
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : grams(q)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) return List.of();
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        List<Set<Long>> others = sets.subList(1, sets.size());
+        List<Long> result = new ArrayList<>();
+        for (Long id : sets.get(0)) {
+            if (others.stream().allMatch(ids -> ids.contains(id))) result.add(id);
+        }
+        return result;
+    }
+
+    private static int rank(String title, String q) {
+        if (title.equals(q)) return 0;
+        if (title.startsWith(q)) return 1;
+        if (title.contains(" " + q)) return 2;
+        return 3;
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (k, ids) -> {
+            ids.remove(id);
+            if (!ids.isEmpty()) return ids;
+            for (String sub : substrings(k)) {
+                gramsBySubstring.computeIfPresent(sub, (key, grams) -> {
+                    grams.remove(k);
+                    return grams.isEmpty() ? null : grams;
+                });
+            }
+            return null;
+        });
+    }
+
+    // 3-gram 의 1~2자 부분 문자열
+    private static Set<String> substrings(String gram) {
+        Set<String> subs = new HashSet<>();
+        for (int length = 1; length < GRAM; length++) {
+            for (int i = 0; i + length <= gram.length(); i++) {
+                subs.add(gram.substring(i, i + length));
+            }
+        }
+        return subs;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /** 소문자 + 연속 공백을 하나로 */
+    static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,226 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.WriteBehindProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    detail PATCH write-behind (app.write-behind.enabled=true 일 때만 사용)
+    - 요청은 도서 id 별로 합쳐서(필드별 나중 값 우선) 대기열에 넣고 tracking id 로 202 응답
+    - flush-interval 마다, 또는 대기 도서가 batch-size 만큼 쌓이면 batch-size 단위 트랜잭션으로 반영
+    - 대기 도서가 capacity 를 넘으면 503 + Retry-After (같은 도서에 대한 추가 패치는 합쳐지므로 받음)
+    - 종료 시 웹 서버가 멈춘 뒤(새 요청 없음) 남은 패치를 모두 반영하고 끝낸다
+ */
+@Slf4j
+@Component
+public class DetailWriteBehind implements SmartLifecycle {
+
+    private static final class Pending {
+        final BookDTO.DetailPatchRequest patch;
+        final List<String> trackingIds = new ArrayList<>(2);
+
+        Pending(BookDTO.DetailPatchRequest patch) {
+            this.patch = patch;
+        }
+    }
+
+    private final BookService bookService;
+    private final OptimisticRetry optimisticRetry;
+    private final WriteBehindProperties properties;
+    private final Cache<String, BookDTO.DetailPatchStatus> statuses;
+
+    private final Object lock = new Object();
+    private LinkedHashMap<Long, Pending> pending = new LinkedHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public DetailWriteBehind(BookService bookService, OptimisticRetry optimisticRetry,
+                             WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.bookService = bookService;
+        this.optimisticRetry = optimisticRetry;
+        this.properties = properties;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStatusTtl())
+                .maximumSize(properties.getCapacity() * 10L)
+                .build();
+        Gauge.builder("book.detail.write_behind.pending", this, DetailWriteBehind::pendingCount)
+                .description("반영 대기 중인 도서 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** 대기열에 넣고 PENDING 상태를 돌려준다 (가득 찼거나 종료 중이면 503) */
+    public BookDTO.DetailPatchStatus submit(Long bookId, BookDTO.DetailPatchRequest patch) {
+        BookDTO.DetailPatchStatus status = new BookDTO.DetailPatchStatus(
+                UUID.randomUUID().toString(), bookId, BookDTO.DetailPatchStatus.State.PENDING, null);
+        int size;
+        synchronized (lock) {
+            if (!running) {
+                throw new RetryLaterException("서버가 종료 중입니다.", HttpStatus.SERVICE_UNAVAILABLE,
+                        properties.getFlushInterval());
+            }
+            Pending entry = pending.get(bookId);
+            if (entry == null) {
+                if (pending.size() >= properties.getCapacity()) {
+                    throw new RetryLaterException("반영 대기 중인 변경이 너무 많습니다. 잠시 후 다시 시도해 주세요.",
+                            HttpStatus.SERVICE_UNAVAILABLE, properties.getFlushInterval());
+                }
+                entry = new Pending(patch);
+                pending.put(bookId, entry);
+            } else {
+                entry.patch.merge(patch);
+            }
+            entry.trackingIds.add(status.getTrackingId());
+            // flush 가 상태를 바꾸기 전에 PENDING 이 먼저 들어가도록 lock 안에서
+            statuses.put(status.getTrackingId(), status);
+            size = pending.size();
+        }
+
+        if (size >= properties.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // 종료 중 - stop() 에서 마저 반영된다
+            }
+        }
+        return status;
+    }
+
+    public BookDTO.DetailPatchStatus getStatus(String trackingId) {
+        return statuses.getIfPresent(trackingId);
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /** 대기 중인 패치를 모두 반영 (batch-size 단위 트랜잭션) */
+    public void flush() {
+        flushRequested.set(false);
+        Map<Long, Pending> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            apply(batch);
+        }
+    }
+
+    private Map<Long, Pending> takeBatch() {
+        synchronized (lock) {
+            if (pending.size() <= properties.getBatchSize()) {
+                Map<Long, Pending> batch = pending;
+                pending = new LinkedHashMap<>();
+                return batch;
+            }
+            Map<Long, Pending> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, Pending>> it = pending.entrySet().iterator();
+            while (batch.size() < properties.getBatchSize()) {
+                Map.Entry<Long, Pending> entry = it.next();
+                batch.put(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+            return batch;
+        }
+    }
+
+    private void apply(Map<Long, Pending> batch) {
+        Map<Long, BookDTO.DetailPatchRequest> patches = new LinkedHashMap<>();
+        batch.forEach((bookId, entry) -> patches.put(bookId, entry.patch));
+        try {
+            Set<Long> missing = bookService.patchDetails(patches);
+            batch.forEach((bookId, entry) -> complete(bookId, entry,
+                    missing.contains(bookId) ? "해당 ID의 도서를 찾을 수 없습니다." : null));
+        } catch (RuntimeException e) {
+            // 동기 PATCH 와의 버전 충돌 등으로 배치 전체가 롤백되면 도서별 트랜잭션(+재시도)으로 다시
+            log.warn("detail 배치 반영 실패({}권), 도서별로 다시 시도: {}", batch.size(), e.getMessage());
+            batch.forEach((bookId, entry) -> {
+                try {
+                    optimisticRetry.execute(() -> bookService.patchDetail(bookId, entry.patch, null));
+                    complete(bookId, entry, null);
+                } catch (RuntimeException ex) {
+                    complete(bookId, entry, ex.getMessage());
+                }
+            });
+        }
+    }
+
+    private void complete(Long bookId, Pending entry, String failure) {
+        BookDTO.DetailPatchStatus.State state = failure == null
+                ? BookDTO.DetailPatchStatus.State.APPLIED : BookDTO.DetailPatchStatus.State.FAILED;
+        for (String trackingId : entry.trackingIds) {
+            statuses.put(trackingId, new BookDTO.DetailPatchStatus(trackingId, bookId, state, failure));
+        }
+    }
+
+    // 스케줄 작업은 예외가 나면 다음 실행이 취소되므로 여기서 막는다
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("detail write-behind 반영 실패", e);
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void start() {
+        long interval = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "detail-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = pendingCount();
+        flush();
+        log.info("detail write-behind 종료 - 남은 {}권 반영 완료", remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 웹 서버(graceful shutdown 포함)가 멈춘 다음에 stop 되도록 더 낮은 phase
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.exception.ConstraintViolations;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/*
+    @Version 충돌 시 트랜잭션을 처음부터 다시 실행하는 재시도 (행 잠금 없이 동시 PATCH 처리)
+    트랜잭션 바깥에서 호출해야 매 시도마다 최신 상태를 다시 읽는다.
+    PATCH 는 "보낸 필드만 반영"이라 재시도해도 다른 요청이 바꾼 필드를 덮어쓰지 않는다.
+    detail 이 없는 도서에 동시 PATCH 가 오면 둘 다 insert 하다 book_id 유니크 제약에 걸리는데,
+    이것도 다시 읽으면 먼저 생긴 detail 을 수정하는 것으로 풀리므로 충돌로 본다.
+    그 밖의 제약 위반(ISBN 중복, NOT NULL 등)은 다시 해도 같으므로 재시도하지 않는다.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    public static final int MAX_ATTEMPTS = 5;
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (!isConflict(e) || attempt >= MAX_ATTEMPTS) throw e;
+                log.debug("낙관적 락 충돌, 재시도 {}/{}", attempt, MAX_ATTEMPTS);
+                backoff(attempt);
+            }
+        }
+    }
+
+    static boolean isConflict(Throwable e) {
+        return e instanceof OptimisticLockingFailureException
+                || e instanceof OptimisticLockException
+                || ConstraintViolations.isUniqueViolationOn(e, "book_details");
+    }
+
+    // 같은 타이밍에 다시 부딪히지 않도록 약간의 지터
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void rejectsWith429WhenQueueIsFullAnd503WhenWaitTimesOut() throws Exception {
+        // Given - 상한 1, 대기 1
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", new BulkheadProperties.Limit(
+                1, 1, 1, Duration.ofMillis(200), null, 0.9), meterRegistry);
+        limiter.acquire();
+
+        // When - 한 요청은 대기열에서 기다리는 중
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(limiter::acquire);
+        while (meterRegistry.get("book.bulkhead.waiting").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Then - 대기열이 차 있으면 바로 429, 기다리던 요청은 max-wait 뒤 503
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(RetryLaterException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThatThrownBy(() -> waiter.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RetryLaterException.class)
+                .cause().extracting("httpStatus").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.get("book.bulkhead.rejected").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("book.bulkhead.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+
+        // 자리를 돌려주면 다시 바로 통과
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        limiter.acquire();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void shrinksOnSlowResponsesAndGrowsBackWhenFast() {
+        // Given - target-latency 0ms 초과면 느린 응답 (연달아 줄일 수 있도록 아주 짧게)
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", new BulkheadProperties.Limit(
+                8, 2, 0, Duration.ZERO, Duration.ofNanos(1), 0.5), meterRegistry);
+
+        // When - 느린 응답이 이어지면 min-concurrent 까지
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // When - 상한을 다 쓰는 동안 빠른 응답이 이어지면 다시 max-concurrent 까지
+        for (int i = 0; i < 100; i++) {
+            int concurrent = (int) limiter.getLimit();
+            for (int j = 0; j < concurrent; j++) limiter.acquire();
+            for (int j = 0; j < concurrent; j++) limiter.release(0);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,118 @@
+package com.rookies4.myspringbootlab.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    primary / replica 를 서로 다른 H2 메모리 DB 로 띄우고 복제는 테스트가 직접 흉내낸다.
+    (lag-check-interval 을 길게 잡아 스케줄러 대신 테스트가 check() 를 호출)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.max-lag=5s",
+        "app.datasource.routing.lag-check-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.warm-up.enabled=false",
+        "app.isbn-filter.enabled=false"     // replica 에는 스키마가 없어서 필터 구축/동기화가 실패만 반복
+})
+public class RoutingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute(ReplicaLagMonitor.CREATE_HEARTBEAT_TABLE);
+    }
+
+    @Test
+    public void readOnlyTransactionGoesToReplicaWhenItIsUpToDate() {
+        // Given - primary 의 heartbeat 를 replica 로 "복제"
+        lagMonitor.check();
+        replicate(new JdbcTemplate(primaryDataSource).queryForObject(
+                "select beat_at from replication_heartbeat where id = 1", Timestamp.class));
+
+        // When
+        lagMonitor.check();
+
+        // Then
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("routing-replica");
+        assertThat(databaseIn(false)).isEqualToIgnoringCase("routing-primary");
+        assertThat(new JdbcTemplate(dataSource).queryForObject("select database()", String.class))
+                .isEqualToIgnoringCase("routing-primary");
+    }
+
+    @Test
+    public void readOnlyTransactionFallsBackToPrimaryWhenReplicaLags() {
+        // Given - replica 가 1분 전 상태에 머물러 있음
+        replicate(Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES)));
+
+        // When
+        lagMonitor.check();
+
+        // Then
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(lagMonitor.getLag()).isGreaterThan(Duration.ofSeconds(5));
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("routing-primary");
+    }
+
+    @Test
+    public void readOnlyTransactionFallsBackToPrimaryWhenLagIsUnknown() {
+        // Given - replica 에 heartbeat 가 아직 한 번도 도착하지 않음
+        replica.update("delete from replication_heartbeat");
+
+        // When
+        lagMonitor.check();
+
+        // Then
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(lagMonitor.getLag()).isNull();
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("routing-primary");
+    }
+
+    private void replicate(Timestamp beatAt) {
+        if (replica.update("update replication_heartbeat set beat_at = ? where id = 1", beatAt) == 0) {
+            replica.update("insert into replication_heartbeat (id, beat_at) values (1, ?)", beatAt);
+        }
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select database()", String.class));
+    }
+}
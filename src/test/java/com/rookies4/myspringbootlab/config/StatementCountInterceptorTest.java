@@ -0,0 +1,110 @@
+package com.rookies4.myspringbootlab.config;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.service.BookIsbnCache;
+import com.rookies4.myspringbootlab.service.BookService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    요청 스레드 밖에서 SQL 이 나가는 요청이 0 에 가까운 값으로 기록되지 않는지 확인한다
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = "app.warm-up.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+public class StatementCountInterceptorTest {
+
+    private static final String METRIC = "hibernate.statements.per.request";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookIsbnCache bookIsbnCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void requestThreadQueriesAreRecorded() throws Exception {
+        // Given - 캐시를 비워 DB 를 읽게 함
+        BookDTO.Response book = bookService.create(newRequest("9780000000701"));
+        bookIsbnCache.evict(book.getIsbn());
+        long before = count("/api/books/isbn/{isbn}");
+
+        // When
+        mockMvc.perform(get("/api/books/isbn/{isbn}", book.getIsbn())).andExpect(status().isOk());
+
+        // Then
+        DistributionSummary summary = summary("/api/books/isbn/{isbn}");
+        assertThat(summary.count()).isEqualTo(before + 1);
+        assertThat(summary.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void multiGetLoadedOnLoaderThreadsIsNotRecorded() throws Exception {
+        // Given
+        BookDTO.Response book = bookService.create(newRequest("9780000000702"));
+        long before = count("/api/books/multi-get");
+
+        // When - SQL 은 BookBatchLoader 스레드에서 나감
+        mockMvc.perform(get("/api/books/multi-get").param("ids", book.getId().toString()))
+                .andExpect(status().isOk());
+
+        // Then
+        assertThat(count("/api/books/multi-get")).isEqualTo(before);
+    }
+
+    @Test
+    public void streamingResponseIsNotRecorded() throws Exception {
+        // Given
+        bookService.create(newRequest("9780000000703"));
+        long before = count("/api/books/stream");
+
+        // When - 첫 dispatch 에서 비동기로 넘어가고, ASYNC 재dispatch 에서 응답을 마무리
+        MvcResult started = mockMvc.perform(get("/api/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // Then
+        assertThat(count("/api/books/stream")).isEqualTo(before);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.find(METRIC).tags("method", "GET", "uri", uri).summary();
+    }
+
+    private long count(String uri) {
+        DistributionSummary summary = summary(uri);
+        return summary != null ? summary.count() : 0;
+    }
+
+    private BookDTO.Request newRequest(String isbn) {
+        return BookDTO.Request.builder()
+                .title("Statement Count")
+                .author("Lee")
+                .isbn(isbn)
+                .price(30000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+}
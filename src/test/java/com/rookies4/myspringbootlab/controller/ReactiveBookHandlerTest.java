@@ -0,0 +1,99 @@
+package com.rookies4.myspringbootlab.controller;
+
+import com.rookies4.myspringbootlab.config.ReactiveReadServer;
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    리액티브 읽기 API 를 실제로 띄워서 (포트 0) 라우트별로 확인한다. 쓰기는 MVC 쪽 BookService 로.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "app.warm-up.enabled=false",
+        "app.reactive.enabled=true",
+        "app.reactive.port=0"
+})
+@ActiveProfiles("prod")
+public class ReactiveBookHandlerTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    public void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveReadServer.getPort()).build();
+    }
+
+    @Test
+    public void readsBooksWrittenThroughService() {
+        // Given
+        BookDTO.Response book = bookService.create(newRequest("Reactive Streams", "Reactive Kim", "9780000000601"));
+        bookService.create(newRequest("Reactive Systems", "Reactive Kim", "9780000000602"));
+
+        // When & Then - ISBN 조회
+        client.get().uri("/api/books/isbn/{isbn}", "9780000000601").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(book.getId())
+                .jsonPath("$.title").isEqualTo("Reactive Streams")
+                .jsonPath("$.publishDate").isEqualTo("2024-01-01");
+
+        // 저자 검색 (접두어, 대소문자 무시)
+        client.get().uri("/api/books/search/author?author=REACTIVE&prefix=true").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].isbn").isEqualTo("9780000000601");
+
+        // 커서 페이지
+        client.get().uri("/api/books?cursor={cursor}&size=1", book.getId() - 1).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(book.getId())
+                .jsonPath("$.hasNext").isEqualTo(true);
+
+        // NDJSON 전체 스트리밍
+        client.get().uri("/api/books").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookDTO.Response.class)
+                .value(books -> assertThat(books)
+                        .extracting(BookDTO.Response::getIsbn).contains("9780000000601", "9780000000602"));
+    }
+
+    @Test
+    public void unknownIsbnAndBadParametersAreProblems() {
+        client.get().uri("/api/books/isbn/{isbn}", "9780000000699").exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody().jsonPath("$.status").isEqualTo(404);
+
+        client.get().uri("/api/books?size=abc").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private BookDTO.Request newRequest(String title, String author, String isbn) {
+        return BookDTO.Request.builder()
+                .title(title)
+                .author(author)
+                .isbn(isbn)
+                .price(30000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.rookies4.myspringbootlab.exception.advice;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultExceptionAdviceTest {
+
+    private final DefaultExceptionAdvice advice = new DefaultExceptionAdvice();
+
+    @Test
+    public void uniqueRacesOnBooksAndDetailsAreConflicts() {
+        // 재시도를 다 써도 풀리지 않은 detail 동시 생성 (커밋 시 변환된 예외)
+        ResponseEntity<?> detailRace = advice.handleDataIntegrityViolation(new DataIntegrityViolationException(
+                "duplicate", unique("insert into book_details (book_id,id) values (?,?)")));
+        // 확인과 insert 사이에 같은 ISBN 이 먼저 커밋됨 (flush() 의 Hibernate 예외 그대로)
+        ResponseEntity<?> isbnRace = advice.handleDataIntegrityViolation(
+                unique("insert into books (isbn,id) values (?,?)"));
+
+        assertThat(detailRace.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(isbnRace.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    public void otherIntegrityViolationsStayServerErrors() {
+        ResponseEntity<?> response = advice.handleDataIntegrityViolation(
+                new DataIntegrityViolationException("not null"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static ConstraintViolationException unique(String sql) {
+        return new ConstraintViolationException("could not execute statement", new SQLException("duplicate"), sql,
+                ConstraintViolationException.ConstraintKind.UNIQUE, null);
+    }
+}
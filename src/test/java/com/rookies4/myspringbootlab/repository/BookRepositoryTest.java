@@ -1,18 +1,30 @@
+package com.rookies4.myspringbootlab.repository;
+
 import com.rookies4.myspringbootlab.entity.Book;
 import com.rookies4.myspringbootlab.entity.BookDetail;
-import com.rookies4.myspringbootlab.repository.BookDetailRepository;
-import com.rookies4.myspringbootlab.repository.BookRepository;
+import com.rookies4.myspringbootlab.exception.ConstraintViolations;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class BookRepositoryTest {
 
     @Autowired
@@ -21,6 +33,9 @@ public class BookRepositoryTest {
     @Autowired
     private BookDetailRepository bookDetailRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     public void createBookWithBookDetail() {
         // Given
@@ -129,18 +144,24 @@ public class BookRepositoryTest {
                 .title("Clean Code")
                 .author("Robert C. Martin")
                 .isbn("9780132350884")
+                .price(45)
+                .publishDate(LocalDate.of(2008, 8, 1))
                 .build();
 
         Book book2 = Book.builder()
                 .title("Clean Architecture")
                 .author("Robert C. Martin")
                 .isbn("9780134494166")
+                .price(40)
+                .publishDate(LocalDate.of(2017, 9, 10))
                 .build();
 
         Book book3 = Book.builder()
                 .title("Effective Java")
                 .author("Joshua Bloch")
                 .isbn("9780134685991")
+                .price(50)
+                .publishDate(LocalDate.of(2018, 1, 6))
                 .build();
 
         bookRepository.saveAll(List.of(book1, book2, book3));
@@ -154,6 +175,48 @@ public class BookRepositoryTest {
                 .containsExactlyInAnyOrder("Clean Code", "Clean Architecture");
     }
 
+    @Test
+    public void findBooksByNormalizedAuthorKey() {
+        // Given
+        Book book1 = Book.builder()
+                .title("Clean Code")
+                .author("Robert C. Martin")
+                .isbn("9780132350884")
+                .price(45)
+                .publishDate(LocalDate.of(2008, 8, 1))
+                .build();
+
+        Book book2 = new Book();
+        book2.setTitle("Clean Architecture");
+        book2.setAuthor("  ROBERT   c. martin ");
+        book2.setIsbn("9780134494166");
+        book2.setPrice(40);
+        book2.setPublishDate(LocalDate.of(2017, 9, 10));
+
+        Book book3 = Book.builder()
+                .title("Refactoring")
+                .author("Martin Fowler")
+                .isbn("9780134757599")
+                .price(50)
+                .publishDate(LocalDate.of(2018, 11, 20))
+                .build();
+
+        bookRepository.saveAll(List.of(book1, book2, book3));
+
+        // When
+        List<Book> exact = bookRepository.findByAuthorKeyOrderByIdAsc(
+                Book.authorKeyOf("robert c. MARTIN"), PageRequest.of(0, 10));
+        List<Book> prefix = bookRepository.findByAuthorKeyStartingWithOrderByAuthorKeyAscIdAsc(
+                Book.authorKeyOf("Mar"), PageRequest.of(0, 10));
+        List<String> suggestions = bookRepository.findAuthorSuggestions("rob%", Limit.of(10));
+
+        // Then
+        assertThat(exact).extracting(Book::getTitle)
+                .containsExactly("Clean Code", "Clean Architecture");
+        assertThat(prefix).extracting(Book::getTitle).containsExactly("Refactoring");
+        assertThat(suggestions).containsExactlyInAnyOrder("Robert C. Martin", "  ROBERT   c. martin ");
+    }
+
     @Test
     public void findBookDetailByBookId() {
         // Given
@@ -185,4 +248,157 @@ public class BookRepositoryTest {
         assertThat(foundBookDetail).isPresent();
         assertThat(foundBookDetail.get().getDescription()).contains("agile software craftsmanship");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void listBooksWithBookDetailInSingleStatement() {
+        // Given
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Book book = Book.builder()
+                    .title("Book " + i)
+                    .author("Author " + (i % 10))
+                    .isbn(String.format("978%010d", i))
+                    .price(10 + i)
+                    .publishDate(LocalDate.of(2020, 1, 1))
+                    .build();
+            book.setBookDetail(BookDetail.builder()
+                    .publisher("Publisher " + (i % 5))
+                    .pageCount(100 + i)
+                    .build());
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<Book> page = bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1000));
+        List<Book> byAuthor = bookRepository.findByAuthor("Author 3");
+        List<Book> byTitle = bookRepository.findByTitleContainingIgnoreCase("book 99");
+
+        // Then: detail 을 모두 건드려도 추가 SELECT 가 없어야 한다
+        assertThat(page).hasSize(1000);
+        assertThat(page).allSatisfy(book -> assertThat(book.getBookDetail().getPublisher()).isNotNull());
+        assertThat(byAuthor).hasSize(100);
+        assertThat(byAuthor).allSatisfy(book -> assertThat(book.getBookDetail()).isNotNull());
+        assertThat(byTitle).hasSize(11);
+        assertThat(byTitle).allSatisfy(book -> assertThat(book.getBookDetail()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void queryBySpecificationsWithFacetCounts() {
+        // Given
+        bookRepository.saveAll(List.of(
+                catalogBook("9780000000201", 15000, 2020, "Hanbit", "ko"),
+                catalogBook("9780000000202", 25000, 2021, "Hanbit", "en"),
+                catalogBook("9780000000203", 18000, 2021, "Insight", "ko"),
+                catalogBook("9780000000204", 40000, 2019, "Insight", "ko")));
+        entityManager.flush();
+        entityManager.clear();
+
+        Specification<Book> priceRange = BookSpecifications.priceBetween(10000, 30000);
+        Specification<Book> korean = BookSpecifications.languageIs("ko");
+
+        // When
+        Page<Book> page = bookRepository.findAll(priceRange.and(korean), PageRequest.of(0, 10, Sort.by("id")));
+        List<BookFacetRepository.FacetCount> publishers =
+                bookRepository.countByFacet(priceRange.and(korean), BookFacetRepository.Facet.PUBLISHER, 10);
+        List<BookFacetRepository.FacetCount> years =
+                bookRepository.countByFacet(priceRange, BookFacetRepository.Facet.YEAR, 10);
+
+        // Then - 목록은 detail 까지 한 번에, 패싯은 많은 순
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(book -> book.getBookDetail().getPublisher())
+                .containsExactly("Hanbit", "Insight");
+        assertThat(publishers).containsExactly(
+                new BookFacetRepository.FacetCount("Hanbit", 1), new BookFacetRepository.FacetCount("Insight", 1));
+        assertThat(years).containsExactly(
+                new BookFacetRepository.FacetCount("2021", 2), new BookFacetRepository.FacetCount("2020", 1));
+    }
+
+    @Test
+    public void catalogFiltersUseCompositeIndexes() {
+        // When
+        String byPrice = explain("select year(publish_date), count(*) from books "
+                + "where price between 10000 and 30000 group by 1");
+        String byPublisher = explain("select d.language, count(*) from books b "
+                + "join book_details d on d.book_id = b.id where d.publisher = 'Hanbit' group by 1");
+
+        // Then
+        assertThat(byPrice).contains("IDX_BOOKS_PRICE_PUBLISH_DATE");
+        assertThat(byPublisher).contains("IDX_BOOK_DETAILS_PUBLISHER");
+    }
+
+    @Test
+    public void bulkPriceUpdateAndDeleteWithoutLoadingEntities() {
+        // Given
+        List<Book> books = bookRepository.saveAll(List.of(
+                catalogBook("9780000000301", 10000, 2020, "Hanbit", "ko"),
+                catalogBook("9780000000302", 20000, 2021, "Hanbit", "ko"),
+                catalogBook("9780000000303", 30000, 2021, "Insight", "en")));
+        entityManager.flush();
+        List<Long> ids = books.stream().map(Book::getId).toList();
+
+        // When
+        List<BookBulkRepository.IdIsbn> hanbit = bookRepository.findIdIsbn(BookSpecifications.publisherIs("Hanbit"));
+        int repriced = bookRepository.scalePrice(hanbit.stream().map(BookBulkRepository.IdIsbn::id).toList(),
+                0.9, Instant.now());
+        Book repricedBook = bookRepository.findById(ids.get(1)).orElseThrow();
+        int details = bookDetailRepository.deleteByBookIdIn(ids.subList(0, 2));
+        int deleted = bookRepository.deleteByIdIn(ids.subList(0, 2));
+
+        // Then - 가격은 반올림, version 증가 / detail 을 먼저 지워서 FK 위반 없음
+        assertThat(hanbit).extracting(BookBulkRepository.IdIsbn::isbn)
+                .containsExactly("9780000000301", "9780000000302");
+        assertThat(repriced).isEqualTo(2);
+        assertThat(repricedBook.getPrice()).isEqualTo(18000);
+        assertThat(repricedBook.getVersion()).isEqualTo(1L);
+        assertThat(details).isEqualTo(2);
+        assertThat(deleted).isEqualTo(2);
+        assertThat(bookRepository.findAll()).extracting(Book::getIsbn).containsExactly("9780000000303");
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult());
+    }
+
+    private Book catalogBook(String isbn, int price, int year, String publisher, String language) {
+        Book book = Book.builder()
+                .title("Catalog " + isbn)
+                .author("Kim")
+                .isbn(isbn)
+                .price(price)
+                .publishDate(LocalDate.of(year, 3, 1))
+                .build();
+        book.setBookDetail(BookDetail.builder().publisher(publisher).language(language).build());
+        return book;
+    }
+
+    @Test
+    public void uniqueViolationsAreAttributedToTheirTable() {
+        // Given
+        Book book = bookRepository.saveAndFlush(Book.builder()
+                .title("Constraint").author("Lee").isbn("9780000000501")
+                .price(30000).publishDate(LocalDate.of(2024, 1, 1)).build());
+        bookDetailRepository.saveAndFlush(BookDetail.builder().book(book).publisher("A").build());
+
+        // When & Then - 같은 도서에 detail 하나 더 (동시 PATCH 가 둘 다 insert 한 경우)
+        bookDetailRepository.save(BookDetail.builder().book(book).publisher("B").build());
+        assertThatThrownBy(entityManager::flush)
+                .matches(e -> ConstraintViolations.isUniqueViolationOn(e, "book_details"))
+                .matches(e -> !ConstraintViolations.isUniqueViolationOn(e, "books"));
+        entityManager.clear();
+
+        // When & Then - 같은 ISBN 으로 한 권 더 (동시 등록)
+        bookRepository.save(Book.builder()
+                .title("Constraint").author("Kim").isbn("9780000000501")
+                .price(30000).publishDate(LocalDate.of(2024, 1, 1)).build());
+        assertThatThrownBy(entityManager::flush)
+                .matches(e -> ConstraintViolations.isUniqueViolationOn(e, "books"));
+    }
+}
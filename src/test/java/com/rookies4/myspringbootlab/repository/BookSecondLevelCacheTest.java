@@ -0,0 +1,154 @@
+package com.rookies4.myspringbootlab.repository;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.entity.BookDetail;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.warm-up.enabled=false")
+@ActiveProfiles("prod")
+public class BookSecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void findByIdIsServedFromCacheAfterFirstLoad() {
+        // Given
+        Long id = tx.execute(status -> bookRepository.save(newBook("9780000000101")).getId());
+        loadWithDetail(id);
+        statistics.clear();
+
+        // When
+        Book book = loadWithDetail(id);
+
+        // Then - book + detail 모두 캐시에서, SQL 0개
+        assertThat(book.getBookDetail().getLanguage()).isEqualTo("Korean");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void entityAndNaturalIdLookupsHitSecondLevelCache() {
+        // Given
+        Long id = tx.execute(status -> bookRepository.save(newBook("9780000000102")).getId());
+        statistics.clear();
+
+        // When
+        Book byId = tx.execute(status -> entityManager.find(Book.class, id));
+        Book byIsbn = tx.execute(status -> entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Book.class).load("9780000000102"));
+
+        // Then - save 시점에 캐시에 들어가 있으므로 books 조회 SQL 없이 찾는다
+        assertThat(byId.getTitle()).isEqualTo("Caching");
+        assertThat(byIsbn.getId()).isEqualTo(id);
+        assertThat(statistics.getDomainDataRegionStatistics("book").getHitCount()).isGreaterThanOrEqualTo(2);
+        assertThat(statistics.getNaturalIdStatistics(Book.class.getName()).getCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findByIsbnIsServedFromCacheAfterFirstLoad() {
+        // Given
+        tx.execute(status -> bookRepository.save(newBook("9780000000103")));
+        tx.execute(status -> bookRepository.findByIsbn("9780000000103"));
+        statistics.clear();
+
+        // When
+        Book book = tx.execute(status -> bookRepository.findByIsbn("9780000000103").orElseThrow());
+
+        // Then
+        assertThat(book.getBookDetail().getPageCount()).isEqualTo(300);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void updateInvalidatesCachedBookAndDetail() {
+        // Given
+        Long id = tx.execute(status -> bookRepository.save(newBook("9780000000104")).getId());
+        loadWithDetail(id);
+
+        // When
+        tx.executeWithoutResult(status -> {
+            Book book = bookRepository.findBookDetailByBookId(id).orElseThrow();
+            book.setTitle("Caching 2nd Edition");
+            book.getBookDetail().setPageCount(420);
+        });
+        statistics.clear();
+        Book reloaded = loadWithDetail(id);
+
+        // Then - 쿼리 캐시는 무효화되어 다시 조회하고, 새 값이 보인다
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(reloaded.getTitle()).isEqualTo("Caching 2nd Edition");
+        assertThat(reloaded.getBookDetail().getPageCount()).isEqualTo(420);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+        assertThat(tx.execute(status -> entityManager.find(Book.class, id)).getTitle())
+                .isEqualTo("Caching 2nd Edition");
+    }
+
+    @Test
+    public void deleteEvictsCachedBook() {
+        // Given
+        Long id = tx.execute(status -> bookRepository.save(newBook("9780000000105")).getId());
+        loadWithDetail(id);
+
+        // When
+        tx.executeWithoutResult(status -> bookRepository.deleteById(id));
+
+        // Then
+        Optional<Book> byId = tx.execute(status -> bookRepository.findBookDetailByBookId(id));
+        Optional<Book> byIsbn = tx.execute(status -> bookRepository.findByIsbn("9780000000105"));
+        Book found = tx.execute(status -> entityManager.find(Book.class, id));
+        assertThat(byId).isEmpty();
+        assertThat(byIsbn).isEmpty();
+        assertThat(found).isNull();
+    }
+
+    private Book loadWithDetail(Long id) {
+        return tx.execute(status -> {
+            Book book = bookRepository.findBookDetailByBookId(id).orElseThrow();
+            book.getBookDetail().getLanguage();
+            return book;
+        });
+    }
+
+    private Book newBook(String isbn) {
+        Book book = Book.builder()
+                .title("Caching")
+                .author("Kim")
+                .isbn(isbn)
+                .price(30000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+        book.setBookDetail(BookDetail.builder().language("Korean").pageCount(300).build());
+        return book;
+    }
+}
@@ -0,0 +1,101 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// window 를 넉넉히 잡아 동시에 들어온 요청이 같은 배치에 모이게 한다
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"app.warm-up.enabled=false", "app.multi-get.window=200ms"})
+@ActiveProfiles("prod")
+public class BookBatchLoaderTest {
+
+    @Autowired
+    private BookBatchLoader bookBatchLoader;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookIsbnCache bookIsbnCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void returnsBooksInRequestOrderAndReportsMissingKeys() {
+        // Given
+        BookDTO.Response first = bookService.create(newRequest("9780000000301"));
+        BookDTO.Response second = bookService.create(newRequest("9780000000302"));
+        bookIsbnCache.evict(second.getIsbn());
+
+        // When - 같은 도서를 id 와 ISBN 으로 같이 요청
+        BookDTO.MultiGetResponse response = bookBatchLoader.get(
+                List.of(second.getId(), -1L, first.getId()),
+                List.of(first.getIsbn(), "9780000000399", second.getIsbn()));
+
+        // Then
+        assertThat(response.getBooks()).extracting(BookDTO.Response::getId)
+                .containsExactly(second.getId(), first.getId());
+        assertThat(response.getMissingIds()).containsExactly(-1L);
+        assertThat(response.getMissingIsbns()).containsExactly("9780000000399");
+    }
+
+    @Test
+    public void concurrentIdenticalLookupsShareOneQuery() throws Exception {
+        // Given
+        BookDTO.Response book = bookService.create(newRequest("9780000000303"));
+        DistributionSummary batches = meterRegistry.get("book.multi_get.batch_size").summary();
+        long batchesBefore = batches.count();
+        double keysBefore = batches.totalAmount();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<BookDTO.MultiGetResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return bookBatchLoader.get(List.of(book.getId()), null);
+                }));
+            }
+            start.countDown();
+
+            // Then - 모두 같은 결과, DB 조회는 한 번 (키 하나)
+            for (Future<BookDTO.MultiGetResponse> future : futures) {
+                assertThat(future.get().getBooks()).extracting(BookDTO.Response::getIsbn)
+                        .containsExactly("9780000000303");
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(batches.count() - batchesBefore).isEqualTo(1);
+        assertThat(batches.totalAmount() - keysBefore).isEqualTo(1);
+    }
+
+    private BookDTO.Request newRequest(String isbn) {
+        return BookDTO.Request.builder()
+                .title("Multi Get")
+                .author("Kim")
+                .isbn(isbn)
+                .price(20000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+}
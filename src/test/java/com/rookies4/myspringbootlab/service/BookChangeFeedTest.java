@@ -0,0 +1,189 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.properties.ChangeFeedProperties;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.warm-up.enabled=false")
+@ActiveProfiles("prod")
+public class BookChangeFeedTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private ChangeFeedProperties properties;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void committedWritesAreRecordedInCommitOrder() {
+        // Given
+        long head = bookChangeFeed.head().getSeq();
+
+        // When
+        BookDTO.Response created = bookService.create(newRequest("9780000000201"));
+        BookDTO.PatchRequest patch = new BookDTO.PatchRequest();
+        patch.setPrice(45000);
+        bookService.patch(created.getId(), patch, null);
+        bookService.deleteBook(created.getId());
+
+        // Then - seq 가 빈틈없이 이어지고, 생성/수정은 변경 후 JSON 을, 삭제는 ISBN 만 담는다
+        List<BookDTO.ChangeEvent> changes = read(head);
+        assertThat(changes).extracting(BookDTO.ChangeEvent::getSeq).containsExactly(head + 1, head + 2, head + 3);
+        assertThat(changes).extracting(BookDTO.ChangeEvent::getType).containsExactly(
+                BookChangedEvent.Type.CREATED, BookChangedEvent.Type.UPDATED, BookChangedEvent.Type.DELETED);
+        assertThat(changes.get(1).getBook()).contains("\"price\":45000");
+        assertThat(changes.get(2).getBook()).isNull();
+        assertThat(changes.get(2).getIsbn()).isEqualTo("9780000000201");
+        assertThat(bookChangeFeed.head().getSeq()).isEqualTo(head + 3);
+    }
+
+    @Test
+    public void rolledBackWritesAreNotRecorded() {
+        // Given
+        long head = bookChangeFeed.head().getSeq();
+
+        // When
+        tx.executeWithoutResult(status -> {
+            bookService.create(newRequest("9780000000202"));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(read(head)).isEmpty();
+        assertThat(bookChangeFeed.head().getSeq()).isEqualTo(head);
+    }
+
+    @Test
+    public void resumingBeforePurgedChangesIsGone() {
+        // Given
+        bookService.create(newRequest("9780000000203"));
+        long head = bookChangeFeed.head().getSeq();
+        Duration retention = properties.getRetention();
+
+        // When - 보관 기간 0 으로 모두 정리
+        properties.setRetention(Duration.ZERO);
+        try {
+            bookChangeFeed.purge();
+        } finally {
+            properties.setRetention(retention);
+        }
+
+        // Then - 지운 구간 앞에서는 재개 불가, head 부터는 가능
+        assertThat(bookChangeFeed.head().getPurgedThrough()).isEqualTo(head);
+        assertThatThrownBy(() -> bookChangeFeed.checkResumable(head - 1))
+                .isInstanceOf(BusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.GONE);
+        bookChangeFeed.checkResumable(head);
+    }
+
+    @Test
+    public void concurrentWritersOnSameBooksGetGaplessSeqsWithoutDeadlock() throws Exception {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(bookService.create(newRequest("97800000022" + i)).getId());
+        }
+        long head = bookChangeFeed.head().getSeq();
+
+        // When - 같은 도서를 여러 요청이 수정하고 하나는 지운다 (도서 행 잠금과 seq 카운터 잠금이 엇갈리는 경우)
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger committed = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long id : ids) {
+            for (int j = 0; j < 3; j++) {
+                int price = 40000 + j;
+                futures.add(pool.submit(() -> write(committed, unexpected, () -> optimisticRetry.execute(() -> {
+                    BookDTO.PatchRequest patch = new BookDTO.PatchRequest();
+                    patch.setPrice(price);
+                    return bookService.patch(id, patch, null);
+                }))));
+            }
+            futures.add(pool.submit(() -> write(committed, unexpected, () -> {
+                bookService.deleteBook(id);
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then - 잠금 대기 시간 초과/교착 없이, 커밋된 쓰기마다 빈틈없는 seq 하나씩
+        assertThat(unexpected).isEmpty();
+        List<BookDTO.ChangeEvent> changes = read(head);
+        assertThat(changes).extracting(BookDTO.ChangeEvent::getSeq)
+                .containsExactlyElementsOf(LongStream.rangeClosed(head + 1, head + committed.get()).boxed().toList());
+    }
+
+    // 먼저 지워진 도서(404), 재시도를 다 쓴 버전 충돌, 수정된 뒤의 삭제(버전 불일치)는 정상적인 실패로 본다
+    private void write(AtomicInteger committed, List<Throwable> unexpected, Supplier<?> action) {
+        try {
+            action.get();
+            committed.incrementAndGet();
+        } catch (BusinessException | ObjectOptimisticLockingFailureException | OptimisticLockException e) {
+            // 예상된 실패
+        } catch (RuntimeException e) {
+            unexpected.add(e);
+        }
+    }
+
+    private List<BookDTO.ChangeEvent> read(long after) {
+        List<BookDTO.ChangeEvent> changes = new ArrayList<>();
+        bookChangeFeed.stream(after, changes::add);
+        return changes;
+    }
+
+    private BookDTO.Request newRequest(String isbn) {
+        return BookDTO.Request.builder()
+                .title("Change Feed")
+                .author("Lee")
+                .isbn(isbn)
+                .price(30000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+}
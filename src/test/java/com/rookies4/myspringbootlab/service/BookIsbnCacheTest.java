@@ -0,0 +1,107 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.event.BookChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookIsbnCacheTest {
+
+    private final BookIsbnCache cache = new BookIsbnCache(new CaffeineCacheManager(BookIsbnCache.CACHE_NAME));
+
+    @Test
+    public void staleReadThroughPutDoesNotOverwriteCommittedUpdate() {
+        // Given - 조회 스레드가 v0 을 읽은 사이에 수정이 커밋되어 이벤트로 v1 이 들어감
+        long readToken = cache.readToken();
+        BookDTO.Response stale = book(1L, "9780000000401", 0L, 30000);
+        cache.onBookChanged(BookChangedEvent.updated("9780000000401", book(1L, "9780000000401", 1L, 45000)));
+
+        // When - 늦게 도착한 read-through put
+        cache.putIfNotInvalidated(stale, readToken);
+
+        // Then
+        assertThat(cache.get("9780000000401").getPrice()).isEqualTo(45000);
+        assertThat(cache.get("9780000000401").getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void readThroughPutAfterDeleteIsDropped() {
+        // Given - 조회 스레드가 삭제 커밋 전에 행을 읽고, 커밋 후 evict 가 먼저 실행됨
+        long readToken = cache.readToken();
+        BookDTO.Response stale = book(1L, "9780000000404", 0L, 30000);
+        cache.onBookChanged(BookChangedEvent.deleted(1L, "9780000000404"));
+
+        // When - 늦게 도착한 read-through put
+        cache.putIfNotInvalidated(stale, readToken);
+
+        // Then - 지워진 도서가 되살아나지 않고, 무효화 이후에 시작한 조회는 다시 채울 수 있다
+        assertThat(cache.get("9780000000404")).isNull();
+        BookDTO.Response reread = book(2L, "9780000000404", 0L, 40000);
+        cache.putIfNotInvalidated(reread, cache.readToken());
+        assertThat(cache.get("9780000000404").getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void readThroughPutAfterIsbnChangeIsDropped() {
+        // Given - 이전 ISBN 으로 읽은 사이에 ISBN 이 바뀌어 커밋됨
+        long readToken = cache.readToken();
+        BookDTO.Response stale = book(1L, "9780000000405", 0L, 30000);
+        cache.onBookChanged(BookChangedEvent.updated("9780000000405", book(1L, "9780000000406", 1L, 30000)));
+
+        // When
+        cache.putIfNotInvalidated(stale, readToken);
+
+        // Then
+        assertThat(cache.get("9780000000405")).isNull();
+        assertThat(cache.get("9780000000406").getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void readThroughPutOlderThanTombstoneTtlIsDropped() {
+        // Given - tombstone 이 만료됐을 만큼 오래 걸린 조회
+        long readToken = cache.readToken() - BookIsbnCache.TOMBSTONE_TTL.toNanos() - 1;
+
+        // When
+        cache.putIfNotInvalidated(book(1L, "9780000000407", 0L, 30000), readToken);
+
+        // Then
+        assertThat(cache.get("9780000000407")).isNull();
+    }
+
+    @Test
+    public void newerVersionAndIsbnTakenOverByAnotherBookReplaceEntry() {
+        // Given
+        cache.putIfNotInvalidated(book(1L, "9780000000402", 0L, 30000), cache.readToken());
+
+        // When & Then - 같은 도서의 새 버전
+        cache.putIfNotInvalidated(book(1L, "9780000000402", 2L, 35000), cache.readToken());
+        assertThat(cache.get("9780000000402").getVersion()).isEqualTo(2L);
+
+        // When & Then - 다른 도서가 ISBN 을 넘겨받으면 버전과 관계없이 교체
+        cache.putIfNotInvalidated(book(2L, "9780000000402", 0L, 40000), cache.readToken());
+        assertThat(cache.get("9780000000402").getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void keysAreNotNormalized() {
+        // Given
+        cache.putIfNotInvalidated(book(1L, "9780000000403", 0L, 30000), cache.readToken());
+
+        // When & Then - DB 조회(findByIsbn)와 같이 표기가 다르면 다른 키
+        assertThat(cache.get("978-0-00-000040-3")).isNull();
+        assertThat(cache.get("9780000000403")).isNotNull();
+    }
+
+    private BookDTO.Response book(Long id, String isbn, Long version, int price) {
+        return BookDTO.Response.builder()
+                .id(id)
+                .title("Isbn Cache")
+                .author("Lee")
+                .isbn(isbn)
+                .price(price)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.warm-up.enabled=false")
+@ActiveProfiles("prod")
+public class BookIsbnFilterTest {
+
+    // 다른 인스턴스 / 직접 쓰기를 흉내 내는 행의 id (시퀀스가 배정하는 범위와 겹치지 않게)
+    private static final long FOREIGN_ID = 900_000_001L;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookIsbnFilter bookIsbnFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("delete from books where id = ?", FOREIGN_ID);
+    }
+
+    @Test
+    public void unknownIsbnIsRejectedWithoutQuery() {
+        // Given
+        double before = meterRegistry.get("book.isbn_filter.rejections").counter().count();
+
+        // When & Then - 필터에서 걸러져 404
+        assertThatThrownBy(() -> bookService.getByIsbn("9780000000301"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(meterRegistry.get("book.isbn_filter.rejections").counter().count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void isbnCommittedByAnotherInstanceIsFoundAfterSync() {
+        // Given - 다른 인스턴스가 도서와 outbox 행을 커밋 (이 인스턴스에는 이벤트가 오지 않음)
+        insertBookDirectly("9780000000302");
+        long seq = jdbcTemplate.queryForObject("select last_seq from book_change_sequence", Long.class) + 1;
+        jdbcTemplate.update("update book_change_sequence set last_seq = ?", seq);
+        jdbcTemplate.update("insert into book_changes (seq, book_id, type, isbn, occurred_at)"
+                + " values (?, ?, 'CREATED', ?, current_timestamp)", seq, FOREIGN_ID, "9780000000302");
+        assertThat(bookIsbnFilter.mightContain("9780000000302")).isFalse();
+
+        // When
+        bookIsbnFilter.sync();
+
+        // Then
+        assertThat(bookIsbnFilter.mightContain("9780000000302")).isTrue();
+        assertThat(bookService.getByIsbn("9780000000302").getId()).isEqualTo(FOREIGN_ID);
+    }
+
+    @Test
+    public void duplicateIsbnIsConflictEvenWhenFilterMissesIt() {
+        // Given - 필터가 모르는 직접 쓰기
+        insertBookDirectly("9780000000303");
+        assertThat(bookIsbnFilter.mightContain("9780000000303")).isFalse();
+        BookDTO.Response other = bookService.create(newRequest("9780000000304"));
+
+        // When & Then - 생성도 PATCH 도 DB 로 확인해서 409
+        assertThatThrownBy(() -> bookService.create(newRequest("9780000000303")))
+                .isInstanceOf(BusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.CONFLICT);
+        BookDTO.PatchRequest patch = new BookDTO.PatchRequest();
+        patch.setIsbn("9780000000303");
+        assertThatThrownBy(() -> bookService.patch(other.getId(), patch, null))
+                .isInstanceOf(BusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private void insertBookDirectly(String isbn) {
+        jdbcTemplate.update("insert into books (id, title, author, author_key, isbn, price, publish_date, version, updated_at)"
+                + " values (?, 'Direct', 'Lee', 'lee', ?, 30000, date '2024-01-01', 0, current_timestamp)", FOREIGN_ID, isbn);
+    }
+
+    private BookDTO.Request newRequest(String isbn) {
+        return BookDTO.Request.builder()
+                .title("Isbn Filter")
+                .author("Lee")
+                .isbn(isbn)
+                .price(30000)
+                .publishDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BookTitleIndexTest {
+
+    // rebuild() 를 부르지 않으므로 저장소는 필요 없다
+    private final BookTitleIndex index = new BookTitleIndex(null);
+
+    @Test
+    public void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        // Given
+        index.index(1L, "Learning Java");
+        index.index(2L, "Java");
+        index.index(3L, "Effective Java");
+        index.index(4L, "Javascript Patterns");
+        index.index(5L, "Enjavaed");
+        index.index(6L, "Spring in Action");
+
+        // When & Then
+        assertThat(index.search("  JAVA ", 0, 10)).containsExactly(2L, 4L, 1L, 3L, 5L);
+        assertThat(index.search("java", 1, 2)).containsExactly(1L, 3L);
+        assertThat(index.search("kotlin", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void shortQueriesAreAnsweredFromIndex() {
+        // Given
+        index.index(1L, "Go");
+        index.index(2L, "Go in Action");
+        index.index(3L, "Learning Go");
+        index.index(4L, "Django");
+        index.index(5L, "C");
+        index.index(6L, "C Programming");
+        index.index(7L, "Objective-C");
+        index.index(8L, "자바의 정석");
+        index.index(9L, "모던 자바 인 액션");
+        index.index(10L, "자바");
+
+        // When & Then - 1~2자도 긴 검색어와 같은 순위
+        assertThat(index.search(" GO ", 0, 10)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.search("c", 0, 10)).containsExactly(5L, 6L, 7L, 2L);
+        assertThat(index.search("자바", 0, 10)).containsExactly(10L, 8L, 9L);
+        assertThat(index.search("   ", 0, 10)).isEmpty();
+
+        // 제목이 바뀌거나 지워지면 짧은 검색어에서도 빠진다
+        index.index(1L, "Rust");
+        index.remove(10L);
+        assertThat(index.search("go", 0, 10)).containsExactly(2L, 3L, 4L);
+        assertThat(index.search("자바", 0, 10)).containsExactly(8L, 9L);
+    }
+
+    @Test
+    public void commonGramKeepsOnlyRequestedWindowButSameOrder() {
+        // Given - 모든 제목에 들어 있는 n-gram
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            index.index(id, "the book " + "x".repeat((int) (id % 7)) + id);
+            expected.add(id);
+        }
+        // 짧은 제목 우선, 같으면 id 순 (전체 정렬 결과와 같아야 함)
+        expected.sort((a, b) -> {
+            int byLength = Integer.compare(titleLength(a), titleLength(b));
+            return byLength != 0 ? byLength : Long.compare(a, b);
+        });
+
+        // When
+        List<Long> page3 = index.search("the", 3, 20);
+
+        // Then
+        assertThat(page3).containsExactlyElementsOf(expected.subList(60, 80));
+    }
+
+    @Test
+    public void pagesBeyondResultWindowAreRejected() {
+        // Given
+        index.index(1L, "Spring Boot");
+        int size = 20;
+        int lastPage = BookTitleIndex.MAX_RESULT_WINDOW / size - 1;
+
+        // When & Then
+        assertThat(index.search("spring", lastPage, size)).isEmpty();
+        assertThatThrownBy(() -> index.search("spring", lastPage + 1, size))
+                .isInstanceOf(BusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static int titleLength(long id) {
+        return ("the book " + "x".repeat((int) (id % 7)) + id).length();
+    }
+}
@@ -0,0 +1,160 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.controller.dto.BookDTO;
+import com.rookies4.myspringbootlab.entity.Book;
+import com.rookies4.myspringbootlab.exception.BusinessException;
+import com.rookies4.myspringbootlab.exception.RetryLaterException;
+import com.rookies4.myspringbootlab.properties.WriteBehindProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    DB 없이 BookService 의 반영 메서드만 바꿔 끼워서 대기열 동작을 확인한다
+    (flush-interval 을 길게 잡아 스케줄러 대신 테스트가 flush() / stop() 을 호출)
+ */
+public class DetailWriteBehindTest {
+
+    private final List<Map<Long, BookDTO.DetailPatchRequest>> batches = new ArrayList<>();
+    private final Map<Long, RuntimeException> perBookFailures = new HashMap<>();
+    private final AtomicInteger perBookAttempts = new AtomicInteger();
+    private RuntimeException batchFailure;
+    private Set<Long> missing = Set.of();
+
+    private DetailWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setUp() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setFlushInterval(Duration.ofHours(1));
+        writeBehind = new DetailWriteBehind(new RecordingBookService(), new OptimisticRetry(), properties,
+                new SimpleMeterRegistry());
+        writeBehind.start();
+    }
+
+    @Test
+    public void repeatedWritesToSameDetailAreMergedIntoOnePatch() {
+        // When - 같은 도서에 세 번 (마지막 description 이 이김), 다른 도서에 한 번
+        BookDTO.DetailPatchStatus first = writeBehind.submit(1L, patch("first", null));
+        BookDTO.DetailPatchStatus second = writeBehind.submit(1L, patch(null, "Hanbit"));
+        BookDTO.DetailPatchStatus third = writeBehind.submit(1L, patch("third", null));
+        writeBehind.submit(2L, patch("other", null));
+        assertThat(writeBehind.pendingCount()).isEqualTo(2);
+        writeBehind.flush();
+
+        // Then - 한 트랜잭션에 도서당 패치 하나
+        assertThat(batches).hasSize(1);
+        BookDTO.DetailPatchRequest merged = batches.get(0).get(1L);
+        assertThat(merged.getDescription()).isEqualTo("third");
+        assertThat(merged.getPublisher()).isEqualTo("Hanbit");
+        assertThat(batches.get(0)).containsOnlyKeys(1L, 2L);
+        for (BookDTO.DetailPatchStatus status : List.of(first, second, third)) {
+            assertThat(writeBehind.getStatus(status.getTrackingId()).getState())
+                    .isEqualTo(BookDTO.DetailPatchStatus.State.APPLIED);
+        }
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    public void pendingPatchesAreFlushedOnShutdown() {
+        // Given
+        BookDTO.DetailPatchStatus status = writeBehind.submit(1L, patch("before shutdown", null));
+        assertThat(batches).isEmpty();
+
+        // When
+        writeBehind.stop();
+
+        // Then - 남은 패치를 반영하고, 이후 요청은 503
+        assertThat(batches).hasSize(1);
+        assertThat(writeBehind.getStatus(status.getTrackingId()).getState())
+                .isEqualTo(BookDTO.DetailPatchStatus.State.APPLIED);
+        assertThat(writeBehind.isRunning()).isFalse();
+        assertThatThrownBy(() -> writeBehind.submit(1L, patch("after shutdown", null)))
+                .isInstanceOf(RetryLaterException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void failedBatchIsRetriedPerBookAndFailuresAreReported() {
+        // Given - 배치 전체가 롤백, 도서별로는 1 은 한 번 충돌 후 성공, 2 는 없는 도서
+        batchFailure = new ObjectOptimisticLockingFailureException(Book.class, 1L);
+        perBookFailures.put(1L, new ObjectOptimisticLockingFailureException(Book.class, 1L));
+        perBookFailures.put(2L, BusinessException.notFound("해당 ID의 도서를 찾을 수 없습니다."));
+        BookDTO.DetailPatchStatus retried = writeBehind.submit(1L, patch("retried", null));
+        BookDTO.DetailPatchStatus failed = writeBehind.submit(2L, patch("missing", null));
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertThat(writeBehind.getStatus(retried.getTrackingId()).getState())
+                .isEqualTo(BookDTO.DetailPatchStatus.State.APPLIED);
+        BookDTO.DetailPatchStatus failure = writeBehind.getStatus(failed.getTrackingId());
+        assertThat(failure.getState()).isEqualTo(BookDTO.DetailPatchStatus.State.FAILED);
+        assertThat(failure.getMessage()).isEqualTo("해당 ID의 도서를 찾을 수 없습니다.");
+        assertThat(perBookAttempts).hasValue(3);
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    public void missingBooksInSuccessfulBatchAreFailed() {
+        // Given
+        missing = Set.of(2L);
+        BookDTO.DetailPatchStatus applied = writeBehind.submit(1L, patch("ok", null));
+        BookDTO.DetailPatchStatus failed = writeBehind.submit(2L, patch("missing", null));
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertThat(writeBehind.getStatus(applied.getTrackingId()).getState())
+                .isEqualTo(BookDTO.DetailPatchStatus.State.APPLIED);
+        assertThat(writeBehind.getStatus(failed.getTrackingId()).getState())
+                .isEqualTo(BookDTO.DetailPatchStatus.State.FAILED);
+    }
+
+    private static BookDTO.DetailPatchRequest patch(String description, String publisher) {
+        BookDTO.DetailPatchRequest patch = new BookDTO.DetailPatchRequest();
+        if (description != null) patch.setDescription(description);
+        if (publisher != null) patch.setPublisher(publisher);
+        return patch;
+    }
+
+    // 반영 요청을 기록하고, 지정한 실패를 낸다 (실패는 한 번만)
+    private class RecordingBookService extends BookService {
+
+        RecordingBookService() {
+            super(null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public Set<Long> patchDetails(Map<Long, BookDTO.DetailPatchRequest> patches) {
+            batches.add(patches);
+            if (batchFailure != null) throw batchFailure;
+            return missing;
+        }
+
+        @Override
+        public BookDTO.Response patchDetail(Long id, BookDTO.DetailPatchRequest patch, BookDTO.ExpectedVersion expected) {
+            perBookAttempts.incrementAndGet();
+            RuntimeException failure = perBookFailures.get(id);
+            if (failure instanceof ObjectOptimisticLockingFailureException) perBookFailures.remove(id);
+            if (failure != null) throw failure;
+            return BookDTO.Response.builder().id(id).build();
+        }
+    }
+}
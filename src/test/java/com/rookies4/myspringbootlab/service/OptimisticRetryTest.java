@@ -0,0 +1,85 @@
+package com.rookies4.myspringbootlab.service;
+
+import com.rookies4.myspringbootlab.entity.Book;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OptimisticRetryTest {
+
+    private final OptimisticRetry optimisticRetry = new OptimisticRetry();
+
+    @Test
+    public void onlyVersionConflictsAndDetailInsertRaceAreRetryable() {
+        assertThat(OptimisticRetry.isConflict(new ObjectOptimisticLockingFailureException(Book.class, 1L))).isTrue();
+        assertThat(OptimisticRetry.isConflict(new jakarta.persistence.OptimisticLockException())).isTrue();
+        // detail 동시 insert - 커밋 시 변환된 예외 / flush() 의 Hibernate 예외 그대로
+        assertThat(OptimisticRetry.isConflict(new DataIntegrityViolationException("duplicate",
+                violation("insert into book_details (book_id,id) values (?,?)")))).isTrue();
+        assertThat(OptimisticRetry.isConflict(violation("insert into book_details (book_id,id) values (?,?)"))).isTrue();
+
+        // 다시 해도 같은 결과인 제약 위반은 재시도하지 않는다
+        assertThat(OptimisticRetry.isConflict(new DataIntegrityViolationException("duplicate",
+                violation("update books set isbn=?,version=? where id=? and version=?")))).isFalse();
+        assertThat(OptimisticRetry.isConflict(new ConstraintViolationException("not null", new SQLException("null"),
+                "insert into book_details (book_id,id) values (?,?)", ConstraintViolationException.ConstraintKind.OTHER,
+                null))).isFalse();
+        assertThat(OptimisticRetry.isConflict(new DataIntegrityViolationException("not null"))).isFalse();
+    }
+
+    @Test
+    public void givesUpAfterMaxAttemptsWithLastConflict() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        RuntimeException conflict = new DataIntegrityViolationException("duplicate", violation("insert into book_details (book_id,id) values (?,?)"));
+
+        // When & Then - 계속 충돌하면 MAX_ATTEMPTS 번까지만 하고 마지막 예외를 그대로 (DefaultExceptionAdvice 가 409)
+        assertThatThrownBy(() -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw conflict;
+        })).isSameAs(conflict);
+        assertThat(attempts).hasValue(OptimisticRetry.MAX_ATTEMPTS);
+    }
+
+    @Test
+    public void doesNotRetryOtherFailures() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When & Then
+        assertThatThrownBy(() -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate", violation("insert into books (isbn,id) values (?,?)"));
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void returnsResultOnceConflictClears() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) throw new ObjectOptimisticLockingFailureException(Book.class, 1L);
+            return "ok";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+    }
+
+    // 유니크 제약 위반 (이름은 DB 마다 달라서 비워 둠)
+    private static ConstraintViolationException violation(String sql) {
+        return new ConstraintViolationException("could not execute statement", new SQLException("duplicate"), sql,
+                ConstraintViolationException.ConstraintKind.UNIQUE, null);
+    }
+}